@@ -0,0 +1,49 @@
+package com.example.weatherapp.ai;
+
+import com.example.weatherapp.weather.SyntheticForecasts;
+import com.example.weatherapp.weather.WeatherReport;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Summary prompt construction (forecast encoding plus {@link AiSummaryService#getPrompt}) in both encodings.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class PromptBenchmark {
+
+    @Param({"json", "digest"})
+    String encoding;
+
+    @Param({"72", "168"})
+    int hours;
+
+    private AiSummaryService service;
+    private PromptEncoding promptEncoding;
+    private WeatherReport report;
+
+    @Setup
+    public void setUp() {
+        final var registry = new SimpleMeterRegistry();
+        final var cache = new SummaryCache(1000, Duration.ofMinutes(30), 0.1, registry);
+        service = new AiSummaryService("benchmark", "gemini-1.5-flash", encoding, 6, cache, null, null, null, 1, registry);
+        promptEncoding = PromptEncoding.parse(encoding);
+        report = SyntheticForecasts.report(hours, 42);
+    }
+
+    @Benchmark
+    public String getPrompt() {
+        return AiSummaryService.getPrompt("Europe/Berlin", "Berlin", promptEncoding, service.encodeForecast(report));
+    }
+}
@@ -0,0 +1,57 @@
+package com.example.weatherapp.city;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Exact against typo-tolerant search over the same misspelled full names, to keep
+ * {@link CitySearchService#searchFuzzy} within the latency of {@link CitySearchService#searchSuggestions}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class CityFuzzySearchBenchmark {
+
+    private static final int QUERIES = 1024;
+
+    @Param({"10000", "150000"})
+    int size;
+
+    @Param({"0", "1", "2"})
+    int typos;
+
+    private CitySearchService service;
+    private String[] queries;
+
+    @State(Scope.Thread)
+    public static class Cursor {
+        int next;
+    }
+
+    @Setup
+    public void setUp() {
+        final var cities = SyntheticCities.cities(size, 42);
+        service = CitySearchService.of(new SimpleMeterRegistry(), cities, 0);
+        queries = SyntheticCities.typos(cities, QUERIES, typos, 7);
+    }
+
+    @Benchmark
+    public List<String> exact(Cursor cursor) {
+        return service.searchSuggestions(queries[cursor.next++ & (QUERIES - 1)], 10);
+    }
+
+    @Benchmark
+    public List<String> fuzzy(Cursor cursor) {
+        return service.searchFuzzy(queries[cursor.next++ & (QUERIES - 1)], 10);
+    }
+}
@@ -0,0 +1,59 @@
+package com.example.weatherapp.city;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link CitySearchService#nearest} over a synthetic dataset, at random points on the globe.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class CityNearestBenchmark {
+
+    private static final int POINTS = 1024;
+
+    @Param({"10000", "150000"})
+    int size;
+
+    @Param({"1", "10"})
+    int k;
+
+    private CitySearchService service;
+    private double[] lat;
+    private double[] lon;
+
+    @State(Scope.Thread)
+    public static class Cursor {
+        int next;
+    }
+
+    @Setup
+    public void setUp() {
+        service = CitySearchService.of(new SimpleMeterRegistry(), SyntheticCities.cities(size, 42), 0);
+        final var random = new Random(7);
+        lat = new double[POINTS];
+        lon = new double[POINTS];
+        for (int i = 0; i < POINTS; i++) {
+            lat[i] = random.nextDouble() * 180 - 90;
+            lon[i] = random.nextDouble() * 360 - 180;
+        }
+    }
+
+    @Benchmark
+    public List<NearbyCity> nearest(Cursor cursor) {
+        final var i = cursor.next++ & (POINTS - 1);
+        return service.nearest(lat[i], lon[i], k);
+    }
+}
@@ -0,0 +1,54 @@
+package com.example.weatherapp.city;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link CitySearchService#searchSuggestions} over a synthetic dataset, cycling through a fixed query mix.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class CitySearchBenchmark {
+
+    private static final int QUERIES = 1024;
+
+    @Param({"10000", "150000"})
+    int size;
+
+    @Param({"1", "3", "6"})
+    int queryLength;
+
+    @Param({"0.1", "0.9"})
+    double hitRatio;
+
+    private CitySearchService service;
+    private String[] queries;
+
+    @State(Scope.Thread)
+    public static class Cursor {
+        int next;
+    }
+
+    @Setup
+    public void setUp() {
+        final var cities = SyntheticCities.cities(size, 42);
+        service = CitySearchService.of(new SimpleMeterRegistry(), cities, 0);
+        queries = SyntheticCities.queries(cities, QUERIES, queryLength, hitRatio, 7);
+    }
+
+    @Benchmark
+    public List<String> searchSuggestions(Cursor cursor) {
+        return service.searchSuggestions(queries[cursor.next++ & (QUERIES - 1)], 10);
+    }
+}
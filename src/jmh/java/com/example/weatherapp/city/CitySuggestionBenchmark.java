@@ -0,0 +1,40 @@
+package com.example.weatherapp.city;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link City#toSuggestionString()}, the per-result formatting cost of a search.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class CitySuggestionBenchmark {
+
+    private static final int CITIES = 1024;
+
+    private List<City> cities;
+
+    @State(Scope.Thread)
+    public static class Cursor {
+        int next;
+    }
+
+    @Setup
+    public void setUp() {
+        cities = SyntheticCities.cities(CITIES, 42);
+    }
+
+    @Benchmark
+    public String toSuggestionString(Cursor cursor) {
+        return cities.get(cursor.next++ & (CITIES - 1)).toSuggestionString();
+    }
+}
@@ -0,0 +1,97 @@
+package com.example.weatherapp.city;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Deterministic city dataset and query mix, so benchmarks run offline and compare across runs.
+ * <p>
+ * Names are built from syllables that never contain {@code q}, {@code x} or {@code j}; queries made of
+ * those letters are guaranteed misses.
+ */
+public final class SyntheticCities {
+
+    private static final String[] SYLLABLES = {
+            "par", "is", "new", "york", "ber", "lin", "lon", "don", "mu", "nich", "ro", "ma", "san", "to", "ri",
+            "o", "ka", "zu", "rich", "ham", "burg", "ville", "ton", "field", "spring", "port", "la", "mon", "te", "vi"
+    };
+    private static final String MISS_LETTERS = "qxj";
+
+    private SyntheticCities() {
+    }
+
+    /**
+     * {@code count} cities with populations spread log-uniformly between 100 and 10 million; the
+     * populations come from their own generator so that names and coordinates do not depend on them.
+     */
+    public static List<City> cities(int count, long seed) {
+        final var random = new Random(seed);
+        final var populations = new Random(~seed);
+        final var out = new ArrayList<City>(count);
+        for (int i = 0; i < count; i++) {
+            final var name = new StringBuilder(words(random, 2 + random.nextInt(3)));
+            name.setCharAt(0, Character.toUpperCase(name.charAt(0)));
+            final var country = "" + (char) ('A' + random.nextInt(26)) + (char) ('A' + random.nextInt(26));
+            out.add(new City(name.toString(), country,
+                    random.nextDouble() * 180 - 90, random.nextDouble() * 360 - 180, words(random, 3),
+                    (long) Math.pow(10, 2 + populations.nextDouble() * 5)));
+        }
+        return out;
+    }
+
+    /**
+     * {@code count} queries of {@code length} characters; a {@code hitRatio} share are substrings of real
+     * names, the rest match nothing.
+     */
+    public static String[] queries(List<City> cities, int count, int length, double hitRatio, long seed) {
+        final var random = new Random(seed);
+        final var out = new String[count];
+        for (int i = 0; i < count; i++) {
+            if (random.nextDouble() < hitRatio) {
+                final var name = cities.get(random.nextInt(cities.size())).name().toLowerCase();
+                final var start = name.length() > length ? random.nextInt(name.length() - length + 1) : 0;
+                out[i] = name.substring(start, Math.min(name.length(), start + length));
+            } else {
+                final var miss = new StringBuilder(length);
+                for (int j = 0; j < length; j++) miss.append(MISS_LETTERS.charAt(random.nextInt(MISS_LETTERS.length())));
+                out[i] = miss.toString();
+            }
+        }
+        return out;
+    }
+
+    /**
+     * {@code count} names of random cities, each with {@code typos} random edits (substitution, deletion,
+     * insertion or swap of neighbours) applied.
+     */
+    public static String[] typos(List<City> cities, int count, int typos, long seed) {
+        final var random = new Random(seed);
+        final var out = new String[count];
+        for (int i = 0; i < count; i++) {
+            final var name = new StringBuilder(cities.get(random.nextInt(cities.size())).name().toLowerCase());
+            for (int t = 0; t < typos && name.length() > 1; t++) {
+                final var at = random.nextInt(name.length() - 1);
+                final var letter = (char) ('a' + random.nextInt(26));
+                switch (random.nextInt(4)) {
+                    case 0 -> name.setCharAt(at, letter);
+                    case 1 -> name.deleteCharAt(at);
+                    case 2 -> name.insert(at, letter);
+                    default -> {
+                        final var c = name.charAt(at);
+                        name.setCharAt(at, name.charAt(at + 1));
+                        name.setCharAt(at + 1, c);
+                    }
+                }
+            }
+            out[i] = name.toString();
+        }
+        return out;
+    }
+
+    private static String words(Random random, int syllables) {
+        final var out = new StringBuilder();
+        for (int j = 0; j < syllables; j++) out.append(SYLLABLES[random.nextInt(SYLLABLES.length)]);
+        return out.toString();
+    }
+}
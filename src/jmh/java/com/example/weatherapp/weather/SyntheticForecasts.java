@@ -0,0 +1,37 @@
+package com.example.weatherapp.weather;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Random;
+
+/**
+ * Deterministic Open-Meteo style hourly forecasts (one-decimal values, ISO local timestamps).
+ */
+public final class SyntheticForecasts {
+
+    private SyntheticForecasts() {
+    }
+
+    public static WeatherReport report(int hours, long seed) {
+        final var random = new Random(seed);
+        final var start = LocalDateTime.of(2023, 1, 1, 0, 0);
+        final var time = new ArrayList<String>(hours);
+        final var temperature = new ArrayList<Double>(hours);
+        final var precipitation = new ArrayList<Double>(hours);
+        final var wind = new ArrayList<Double>(hours);
+        final var humidity = new ArrayList<Double>(hours);
+        for (int h = 0; h < hours; h++) {
+            time.add(start.plusHours(h).toString());
+            temperature.add(round(12 + 6 * Math.sin((h % 24 - 9) * Math.PI / 12) + random.nextGaussian()));
+            precipitation.add(random.nextDouble() < 0.2 ? round(random.nextDouble() * 3) : 0.0);
+            wind.add(round(5 + random.nextDouble() * 25));
+            humidity.add((double) (55 + random.nextInt(40)));
+        }
+        return new WeatherReport(52.52, 13.41, "Europe/Berlin",
+                new WeatherReport.Hourly(time, temperature, precipitation, wind, humidity));
+    }
+
+    private static double round(double v) {
+        return Math.round(v * 10) / 10.0;
+    }
+}
@@ -0,0 +1,46 @@
+package com.example.weatherapp.weather;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jackson (de)serialization of {@link WeatherReport}, as done for every forecast proxy and summary request.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class WeatherReportJsonBenchmark {
+
+    @Param({"72", "168"})
+    int hours;
+
+    private final ObjectMapper mapper = new ObjectMapper();
+    private WeatherReport report;
+    private String json;
+
+    @Setup
+    public void setUp() throws JsonProcessingException {
+        report = SyntheticForecasts.report(hours, 42);
+        json = mapper.writeValueAsString(report);
+    }
+
+    @Benchmark
+    public String serialize() throws JsonProcessingException {
+        return mapper.writeValueAsString(report);
+    }
+
+    @Benchmark
+    public WeatherReport deserialize() throws JsonProcessingException {
+        return mapper.readValue(json, WeatherReport.class);
+    }
+}
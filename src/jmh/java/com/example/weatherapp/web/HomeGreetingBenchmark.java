@@ -0,0 +1,40 @@
+package com.example.weatherapp.web;
+
+import dev.langchain4j.model.input.PromptTemplate;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The home page greeting: compiling and applying the {@link PromptTemplate} per request, as
+ * {@link HomeController} used to, against the memoized {@link DailyGreeting}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class HomeGreetingBenchmark {
+
+    private final DailyGreeting dailyGreeting = new DailyGreeting();
+
+    @Benchmark
+    public String perRequestTemplate() {
+        final var template = PromptTemplate.from("Welcome to Weather App, {{name}}! Today is {{date}}.");
+        return template.apply(Map.of(
+                "name", "Traveler",
+                "date", LocalDate.now().format(DateTimeFormatter.ISO_DATE)
+        )).text();
+    }
+
+    @Benchmark
+    public String dailyGreeting() {
+        return dailyGreeting.today().message();
+    }
+}
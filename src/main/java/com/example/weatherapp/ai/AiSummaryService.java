@@ -3,88 +3,341 @@ package com.example.weatherapp.ai;
 import com.example.weatherapp.weather.WeatherReport;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.langchain4j.data.message.AiMessage;
+import dev.langchain4j.model.StreamingResponseHandler;
 import dev.langchain4j.model.chat.ChatLanguageModel;
-import dev.langchain4j.model.googleai.GoogleAiGeminiChatModel;
+import dev.langchain4j.model.chat.StreamingChatLanguageModel;
+import dev.langchain4j.model.output.Response;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.jetbrains.annotations.NotNull;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+
 @Service
 public class AiSummaryService {
 
+    private static final String NOT_CONFIGURED = "AI summary unavailable: missing Google Gemini API key.";
+
     private final String apiKey;
     private final String modelName;
+    private final PromptEncoding promptEncoding;
+    private final int digestHours;
+    private final SummaryCache summaryCache;
+    private final ChatLanguageModel chatModel;
+    private final StreamingChatLanguageModel streamingModel;
+    private final SummaryExecutor summaryExecutor;
+    private final int batchParallelism;
+    private final MeterRegistry registry;
+    private final DistributionSummary promptSize;
     private final ObjectMapper mapper = new ObjectMapper();
 
-    private volatile ChatLanguageModel cachedModel;
+    // model calls in flight; identical requests wait for them instead of calling the model again
+    private final SingleFlight<SummaryCache.Key, String> inFlight;
 
     public AiSummaryService(
             @Value("${ai.gemini.api-key:}") String apiKey,
-            @Value("${ai.gemini.model:gemini-1.5-flash}") String modelName
+            @Value("${ai.gemini.model:gemini-1.5-flash}") String modelName,
+            @Value("${ai.prompt.encoding:digest}") String promptEncoding,
+            @Value("${ai.prompt.digest-hours:6}") int digestHours,
+            SummaryCache summaryCache,
+            ChatLanguageModel chatModel,
+            StreamingChatLanguageModel streamingModel,
+            SummaryExecutor summaryExecutor,
+            @Value("${ai.summary.batch.parallelism:8}") int batchParallelism,
+            MeterRegistry registry
     ) {
         this.apiKey = apiKey == null ? "" : apiKey.trim();
         this.modelName = (modelName == null || modelName.isBlank()) ? "gemini-1.5-flash" : modelName;
+        this.promptEncoding = PromptEncoding.parse(promptEncoding);
+        this.digestHours = digestHours;
+        this.summaryCache = summaryCache;
+        this.chatModel = chatModel;
+        this.streamingModel = streamingModel;
+        this.summaryExecutor = summaryExecutor;
+        this.batchParallelism = Math.max(1, batchParallelism);
+        this.registry = registry;
+        this.promptSize = DistributionSummary.builder("ai.summary.prompt.size")
+                .description("Summary prompt length")
+                .baseUnit("chars")
+                .register(registry);
+        this.inFlight = new SingleFlight<>(Counter.builder("ai.summary.coalesced")
+                .description("Summary requests that waited for an identical in-flight model call")
+                .register(registry));
+        registry.gauge("ai.summary.inflight.keys", inFlight, SingleFlight::size);
     }
 
     public boolean isConfigured() {
         return apiKey != null && !apiKey.isBlank();
     }
 
+    /**
+     * Blocking summary of the report. The model call runs through the {@link SummaryExecutor}.
+     *
+     * @throws SummaryBusyException when too many model calls are already in flight
+     */
     public String summarize(WeatherReport report, String timezone, String city) {
         if (!isConfigured()) {
-            return "AI summary unavailable: missing Google Gemini API key.";
+            return NOT_CONFIGURED;
         }
-        final var model = getModel();
-        String reportJson;
         try {
-            reportJson = mapper.writeValueAsString(report);
-        } catch (JsonProcessingException e) {
-            reportJson = safeReport(report);
+            return generate(summaryCache.keyFor(report, timezone, city, modelName), report, timezone, city);
+        } catch (SummaryBusyException ex) {
+            throw ex;
+        } catch (RuntimeException ex) {
+            return unavailable(ex);
         }
+    }
 
-        final var location = city != null && !city.isBlank() ? city : "the provided coordinates";
-        final var prompt = getPrompt(timezone, location, reportJson);
+    /**
+     * Starts generating the summary in the background, so that it is cached or in flight by the time the
+     * page asks for it; like any in-flight call, a request for the same key then waits for this one
+     * instead of calling the model again. Does nothing when not configured, when the summary is already
+     * cached or being generated, or when every model slot is taken.
+     */
+    public void prefetch(WeatherReport report, String timezone, String city) {
+        if (!isConfigured()) {
+            return;
+        }
+        final var key = summaryCache.keyFor(report, timezone, city, modelName);
+        if (summaryCache.get(key) != null) {
+            return;
+        }
+        try {
+            inFlight.start(key, flight -> {
+                final var prompt = buildPrompt(report, timezone, city);
+                summaryExecutor.execute(() -> {
+                    final var sample = Timer.start(registry);
+                    try {
+                        final var summary = chatModel.generate(prompt);
+                        recordModelCall(sample, "prefetch", null);
+                        summaryCache.put(key, summary);
+                        flight.complete(summary);
+                    } catch (RuntimeException ex) {
+                        recordModelCall(sample, "prefetch", ex);
+                        flight.completeExceptionally(ex);
+                    }
+                });
+            });
+        } catch (SummaryBusyException ex) {
+            // the page asks for the summary itself once it is loaded
+        }
+    }
 
+    /**
+     * Summarizes every entry, at most {@code ai.summary.batch.parallelism} at a time. Entries with the
+     * same summary cache key share one model call. Results are returned in request order; a failed
+     * entry gets a non-ok status and the fallback text instead of failing the batch.
+     */
+    public List<SummaryResult> summarizeAll(List<SummaryRequest> requests) {
+        if (!isConfigured()) {
+            return requests.stream().map(r -> new SummaryResult(SummaryResult.Status.NOT_CONFIGURED, NOT_CONFIGURED)).toList();
+        }
+        final var keys = new ArrayList<SummaryCache.Key>(requests.size());
+        final var unique = new LinkedHashMap<SummaryCache.Key, SummaryRequest>();
+        for (final var request : requests) {
+            final var key = summaryCache.keyFor(request.report(), request.timezone(), request.city(), modelName);
+            keys.add(key);
+            unique.putIfAbsent(key, request);
+        }
+        final var results = new HashMap<SummaryCache.Key, Future<SummaryResult>>();
+        final var slots = new Semaphore(batchParallelism);
+        try (final var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (final var entry : unique.entrySet()) {
+                slots.acquireUninterruptibly();
+                results.put(entry.getKey(), executor.submit(() -> {
+                    try {
+                        return summarizeEntry(entry.getKey(), entry.getValue());
+                    } finally {
+                        slots.release();
+                    }
+                }));
+            }
+        }
+        return keys.stream().map(key -> results.get(key).resultNow()).toList();
+    }
+
+    private SummaryResult summarizeEntry(SummaryCache.Key key, SummaryRequest request) {
+        try {
+            return new SummaryResult(SummaryResult.Status.OK, generate(key, request.report(), request.timezone(), request.city()));
+        } catch (SummaryBusyException ex) {
+            return new SummaryResult(SummaryResult.Status.BUSY, SummaryBusyException.USER_MESSAGE);
+        } catch (RuntimeException ex) {
+            return new SummaryResult(SummaryResult.Status.UNAVAILABLE, unavailable(ex));
+        }
+    }
+
+    private String generate(SummaryCache.Key key, WeatherReport report, String timezone, String city) {
+        final var cached = summaryCache.get(key);
+        if (cached != null) {
+            return cached;
+        }
+        return inFlight.call(key, () -> callModel(key, report, timezone, city), summaryExecutor::await);
+    }
+
+    private String callModel(SummaryCache.Key key, WeatherReport report, String timezone, String city) {
+        final var prompt = buildPrompt(report, timezone, city);
+
+        final var sample = Timer.start(registry);
         try {
-            return model.generate(prompt);
+            final var summary = summaryExecutor.call(() -> chatModel.generate(prompt));
+            recordModelCall(sample, "blocking", null);
+            summaryCache.put(key, summary);
+            return summary;
+        } catch (SummaryBusyException ex) {
+            throw ex;
         } catch (RuntimeException ex) {
-            return "AI summary unavailable at the moment. Reason: " + ex.getMessage();
+            recordModelCall(sample, "blocking", ex);
+            throw ex;
+        }
+    }
+
+    /**
+     * Streaming variant of {@link #summarize}: partial text is passed to {@code handler} as the model
+     * produces it. Generation runs on a virtual thread of the {@link SummaryExecutor}, so this returns
+     * immediately; cached, unconfigured and already in-flight responses are delivered as a single token.
+     * The stream is itself an in-flight call: identical requests arriving meanwhile, streamed or not, wait
+     * for it and get the whole summary when it ends.
+     *
+     * @throws SummaryBusyException when too many model calls are already in flight
+     */
+    public void streamSummary(WeatherReport report, String timezone, String city, StreamingResponseHandler<AiMessage> handler) {
+        if (!isConfigured()) {
+            completeWith(handler, NOT_CONFIGURED);
+            return;
+        }
+        final var key = summaryCache.keyFor(report, timezone, city, modelName);
+        final var cached = summaryCache.get(key);
+        if (cached != null) {
+            completeWith(handler, cached);
+            return;
+        }
+        while (true) {
+            if (inFlight.start(key, flight -> stream(key, report, timezone, city, flight, handler))) {
+                return;
+            }
+            final var inFlightCall = inFlight.join(key);
+            if (inFlightCall != null) {
+                inFlightCall.whenComplete((summary, error) -> {
+                    if (error == null) completeWith(handler, summary);
+                    else handler.onError(error);
+                });
+                return;
+            }
+            // the other call finished in between: its summary is cached now, unless it failed
+            final var finished = summaryCache.get(key);
+            if (finished != null) {
+                completeWith(handler, finished);
+                return;
+            }
+        }
+    }
+
+    // streams to this handler; requests joining the flight get the whole summary once the stream ends
+    private void stream(SummaryCache.Key key, WeatherReport report, String timezone, String city,
+                        CompletableFuture<String> flight, StreamingResponseHandler<AiMessage> handler) {
+        final var prompt = buildPrompt(report, timezone, city);
+        final var sample = Timer.start(registry);
+        summaryExecutor.execute(() -> streamingModel.generate(prompt, new StreamingResponseHandler<>() {
+            @Override
+            public void onNext(String token) {
+                handler.onNext(token);
+            }
+
+            @Override
+            public void onComplete(Response<AiMessage> response) {
+                recordModelCall(sample, "stream", null);
+                final var summary = response.content().text();
+                summaryCache.put(key, summary);
+                flight.complete(summary);
+                handler.onComplete(response);
+            }
+
+            @Override
+            public void onError(Throwable error) {
+                recordModelCall(sample, "stream", error);
+                flight.completeExceptionally(error);
+                handler.onError(error);
+            }
+        }));
+    }
+
+    public static String unavailable(Throwable error) {
+        return "AI summary unavailable at the moment. Reason: " + error.getMessage();
+    }
+
+    private static void completeWith(StreamingResponseHandler<AiMessage> handler, String text) {
+        handler.onNext(text);
+        handler.onComplete(Response.from(AiMessage.from(text)));
+    }
+
+    private String buildPrompt(WeatherReport report, String timezone, String city) {
+        final var location = city != null && !city.isBlank() ? city : "the provided coordinates";
+        final var prompt = getPrompt(timezone, location, promptEncoding, encodeForecast(report));
+        promptSize.record(prompt.length());
+        return prompt;
+    }
+
+    private void recordModelCall(Timer.Sample sample, String mode, Throwable error) {
+        sample.stop(Timer.builder("ai.summary.model")
+                .description("Gemini call latency")
+                .tag("mode", mode)
+                .tag("outcome", error == null ? "success" : "failure")
+                .publishPercentileHistogram()
+                .register(registry));
+        if (error != null) {
+            Counter.builder("ai.summary.failures")
+                    .description("Failed Gemini calls by root cause")
+                    .tag("cause", rootCause(error).getClass().getSimpleName())
+                    .register(registry)
+                    .increment();
+        }
+    }
+
+    private static Throwable rootCause(Throwable error) {
+        var t = error;
+        while (t.getCause() != null && t.getCause() != t) t = t.getCause();
+        return t;
+    }
+
+    String encodeForecast(WeatherReport report) {
+        if (promptEncoding == PromptEncoding.DIGEST) {
+            return ForecastDigest.encode(report != null ? report.hourly() : null, digestHours);
+        }
+        try {
+            return mapper.writeValueAsString(report);
+        } catch (JsonProcessingException e) {
+            return safeReport(report);
         }
     }
 
     @NotNull
-    private static String getPrompt(String timezone, String location, String reportJson) {
+    static String getPrompt(String timezone, String location, PromptEncoding encoding, String forecast) {
         final var tz = timezone != null ? timezone : "auto";
 
         return "You are an assistant that summarizes short-term weather forecasts for lay people.\n" +
-                "Given the JSON weather report from Open-Meteo (hourly arrays for next ~72 hours) and context, provide:\n" +
+                "Given " + encoding.description + " and context, provide:\n" +
                 "1) A concise overview of the upcoming weather for the next 1-3 days in " + location + " (timezone: " + tz + ").\n" +
                 "2) Practical tips.\n" +
                 "3) 3-5 activity suggestions suited to the conditions (indoor/outdoor).\n" +
                 "Be specific about temperature ranges, precipitation likelihood, wind, and humidity.\n" +
                 "Keep it under 180 words, use short paragraphs and bullet points.\n\n" +
-                "Weather JSON:\n" + reportJson + "\n\n" +
+                encoding.heading + ":\n" + forecast + "\n\n" +
                 "Respond in plain text (no JSON).";
     }
 
     private String safeReport(WeatherReport r) {
         try { return mapper.writeValueAsString(r); } catch (Exception e) { return "{}"; }
     }
-
-    private ChatLanguageModel getModel() {
-        final var m = cachedModel;
-        if (m == null) {
-            synchronized (this) {
-                final var m2 = cachedModel;
-                if (m2 == null) {
-                    cachedModel = GoogleAiGeminiChatModel.builder()
-                            .apiKey(apiKey)
-                            .modelName(modelName)
-                            .build();
-                }
-                return cachedModel;
-            }
-        }
-        return m;
-    }
 }
@@ -0,0 +1,168 @@
+package com.example.weatherapp.ai;
+
+import com.example.weatherapp.weather.WeatherReport;
+import com.example.weatherapp.weather.WeatherReport.Hourly.Series;
+
+import java.time.LocalDate;
+
+/**
+ * Dense text digest of an Open-Meteo hourly forecast for the summary prompt.
+ * <p>
+ * Instead of five parallel arrays with full ISO timestamps and full-precision doubles, every block of
+ * {@code blockHours} hours becomes one line with the temperature range and mean, the precipitation
+ * total with its wet hours, the peak wind and the humidity range. This is a fraction of the tokens of
+ * the JSON while keeping everything the prompt asks the model to talk about.
+ */
+final class ForecastDigest {
+
+    private static final long SECONDS_PER_DAY = 86_400L;
+
+    private ForecastDigest() {
+    }
+
+    static String encode(WeatherReport.Hourly hourly, int blockHours) {
+        if (hourly == null || hourly.size() == 0) return "No hourly data.";
+        final var hours = hourly.size();
+        final var block = Math.max(1, blockHours);
+        final var out = new StringBuilder(64 * (hours / block + 2));
+        out.append("period | temp °C min..max (mean) | precip mm total (wet hours) | wind km/h max | humidity % min..max\n");
+        for (int start = 0; start < hours; start += block) {
+            final var end = Math.min(start + block, hours);
+            appendPeriod(out, hourly.epochSecond(start), hourly.epochSecond(end - 1));
+            out.append(" | ");
+            appendTemperature(out, hourly, start, end);
+            out.append(" | ");
+            appendPrecipitation(out, hourly, start, end);
+            out.append(" | ");
+            appendMax(out, hourly, Series.WIND_SPEED_10M, start, end);
+            out.append(" | ");
+            appendRange(out, hourly, Series.RELATIVE_HUMIDITY_2M, start, end);
+            out.append('\n');
+        }
+        return out.toString();
+    }
+
+    // 2023-01-01T00:00 + 2023-01-01T05:00 -> "2023-01-01 00-05h"
+    private static void appendPeriod(StringBuilder out, long first, long last) {
+        if (first == WeatherReport.Hourly.NO_TIME || last == WeatherReport.Hourly.NO_TIME) {
+            out.append('?');
+            return;
+        }
+        final var firstDay = Math.floorDiv(first, SECONDS_PER_DAY);
+        final var lastDay = Math.floorDiv(last, SECONDS_PER_DAY);
+        out.append(LocalDate.ofEpochDay(firstDay)).append(' ');
+        appendHour(out, first);
+        if (firstDay != lastDay) out.append("..").append(LocalDate.ofEpochDay(lastDay)).append(' ');
+        else out.append('-');
+        appendHour(out, last);
+        out.append('h');
+    }
+
+    private static void appendTemperature(StringBuilder out, WeatherReport.Hourly hourly, int start, int end) {
+        var min = Double.POSITIVE_INFINITY;
+        var max = Double.NEGATIVE_INFINITY;
+        var sum = 0.0;
+        var n = 0;
+        for (int i = start; i < end; i++) {
+            final var v = hourly.value(Series.TEMPERATURE_2M, i);
+            if (Double.isNaN(v)) continue;
+            min = Math.min(min, v);
+            max = Math.max(max, v);
+            sum += v;
+            n++;
+        }
+        if (n == 0) {
+            out.append('-');
+            return;
+        }
+        appendNumber(out, min);
+        out.append("..");
+        appendNumber(out, max);
+        out.append(" (");
+        appendNumber(out, sum / n);
+        out.append(')');
+    }
+
+    private static void appendPrecipitation(StringBuilder out, WeatherReport.Hourly hourly, int start, int end) {
+        var total = 0.0;
+        var firstWet = -1;
+        var lastWet = -1;
+        var wet = 0;
+        var n = 0;
+        for (int i = start; i < end; i++) {
+            final var v = hourly.value(Series.PRECIPITATION, i);
+            if (Double.isNaN(v)) continue;
+            n++;
+            total += v;
+            if (v > 0) {
+                wet++;
+                if (firstWet < 0) firstWet = i;
+                lastWet = i;
+            }
+        }
+        if (n == 0) {
+            out.append('-');
+            return;
+        }
+        appendNumber(out, total);
+        if (wet == 0) {
+            out.append(" (dry)");
+            return;
+        }
+        out.append(" (").append(wet).append('/').append(n).append(" h, ");
+        appendHour(out, hourly.epochSecond(firstWet));
+        if (lastWet != firstWet) {
+            out.append('-');
+            appendHour(out, hourly.epochSecond(lastWet));
+        }
+        out.append("h)");
+    }
+
+    private static void appendMax(StringBuilder out, WeatherReport.Hourly hourly, Series series, int start, int end) {
+        var max = Double.NaN;
+        for (int i = start; i < end; i++) {
+            final var v = hourly.value(series, i);
+            if (!Double.isNaN(v) && (Double.isNaN(max) || v > max)) max = v;
+        }
+        if (Double.isNaN(max)) out.append('-');
+        else appendNumber(out, max);
+    }
+
+    private static void appendRange(StringBuilder out, WeatherReport.Hourly hourly, Series series, int start, int end) {
+        var min = Double.POSITIVE_INFINITY;
+        var max = Double.NEGATIVE_INFINITY;
+        for (int i = start; i < end; i++) {
+            final var v = hourly.value(series, i);
+            if (Double.isNaN(v)) continue;
+            min = Math.min(min, v);
+            max = Math.max(max, v);
+        }
+        if (min > max) {
+            out.append('-');
+            return;
+        }
+        appendNumber(out, min);
+        out.append("..");
+        appendNumber(out, max);
+    }
+
+    // two-digit local hour of the timestamp
+    private static void appendHour(StringBuilder out, long epochSecond) {
+        if (epochSecond == WeatherReport.Hourly.NO_TIME) {
+            out.append("??");
+            return;
+        }
+        final var hour = Math.floorMod(epochSecond, SECONDS_PER_DAY) / 3600;
+        if (hour < 10) out.append('0');
+        out.append(hour);
+    }
+
+    // one decimal, without a trailing ".0"
+    private static void appendNumber(StringBuilder out, double v) {
+        final var tenths = Math.round(v * 10);
+        if (tenths < 0) out.append('-');
+        final var abs = Math.abs(tenths);
+        out.append(abs / 10);
+        if (abs % 10 != 0) out.append('.').append(abs % 10);
+    }
+}
@@ -0,0 +1,55 @@
+package com.example.weatherapp.ai;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.langchain4j.data.message.AiMessage;
+import dev.langchain4j.data.message.ChatMessage;
+import dev.langchain4j.model.chat.ChatLanguageModel;
+import dev.langchain4j.model.output.Response;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Blocking Gemini chat model on top of the {@code generateContent} API. Calls go through the pooled
+ * {@link GeminiHttpClient}, so they share its connections, timeouts and retries with the streaming model.
+ * A blocked or empty answer is thrown as an {@link IllegalStateException} rather than returned as text.
+ */
+@Component
+public class GeminiChatModel implements ChatLanguageModel {
+
+    private final GeminiHttpClient http;
+    private final String apiKey;
+    private final String modelName;
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    public GeminiChatModel(
+            GeminiHttpClient http,
+            @Value("${ai.gemini.api-key:}") String apiKey,
+            @Value("${ai.gemini.model:gemini-1.5-flash}") String modelName
+    ) {
+        this.http = http;
+        this.apiKey = apiKey == null ? "" : apiKey.trim();
+        this.modelName = (modelName == null || modelName.isBlank()) ? "gemini-1.5-flash" : modelName;
+    }
+
+    @Override
+    public Response<AiMessage> generate(List<ChatMessage> messages) {
+        final var body = http.execute(() -> http.client().post()
+                .uri("/v1beta/models/{model}:generateContent", modelName)
+                .header("x-goog-api-key", apiKey)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(GeminiContent.requestBody(messages))
+                .retrieve()
+                .body(String.class));
+        try {
+            final var response = mapper.readTree(body == null ? "" : body);
+            final var text = GeminiContent.requireAnswer(GeminiContent.text(response), GeminiContent.problem(response));
+            return Response.from(AiMessage.from(text));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Gemini returned an unreadable response", e);
+        }
+    }
+}
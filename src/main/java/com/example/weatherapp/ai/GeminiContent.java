@@ -0,0 +1,79 @@
+package com.example.weatherapp.ai;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import dev.langchain4j.data.message.AiMessage;
+import dev.langchain4j.data.message.ChatMessage;
+import dev.langchain4j.data.message.SystemMessage;
+import dev.langchain4j.data.message.UserMessage;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Request and response shapes of the Gemini {@code generateContent} API, shared by the blocking and the
+ * streaming model.
+ */
+final class GeminiContent {
+
+    // finish reasons after which the text, if any, is a complete answer
+    private static final Set<String> FINISHED = Set.of("", "STOP", "MAX_TOKENS", "FINISH_REASON_UNSPECIFIED");
+
+    private GeminiContent() {
+    }
+
+    static Map<String, Object> requestBody(List<ChatMessage> messages) {
+        final var contents = new ArrayList<Map<String, Object>>();
+        final var system = new StringBuilder();
+        for (final var message : messages) {
+            if (message instanceof SystemMessage s) {
+                system.append(s.text()).append('\n');
+            } else if (message instanceof AiMessage a) {
+                contents.add(content("model", a.text()));
+            } else if (message instanceof UserMessage u) {
+                contents.add(content("user", u.singleText()));
+            }
+        }
+        if (system.isEmpty()) return Map.of("contents", contents);
+        return Map.of(
+                "contents", contents,
+                "systemInstruction", Map.of("parts", List.of(Map.of("text", system.toString())))
+        );
+    }
+
+    private static Map<String, Object> content(String role, String text) {
+        return Map.of("role", role, "parts", List.of(Map.of("text", text)));
+    }
+
+    // a GenerateContentResponse keeps its text in candidates[0].content.parts[*].text
+    static String text(JsonNode response) {
+        final var parts = response.path("candidates").path(0).path("content").path("parts");
+        final var out = new StringBuilder();
+        for (final var part : parts) {
+            out.append(part.path("text").asText(""));
+        }
+        return out.toString();
+    }
+
+    /**
+     * Why the response carries no usable answer: the prompt's {@code promptFeedback.blockReason} or a
+     * {@code finishReason} such as {@code SAFETY} or {@code RECITATION}; {@code null} when it is fine.
+     */
+    static String problem(JsonNode response) {
+        final var blockReason = response.path("promptFeedback").path("blockReason").asText("");
+        if (!blockReason.isEmpty()) return "prompt blocked (" + blockReason + ")";
+        final var finishReason = response.path("candidates").path(0).path("finishReason").asText("");
+        return FINISHED.contains(finishReason) ? null : "finishReason " + finishReason;
+    }
+
+    /**
+     * The final answer, or a failure when Gemini blocked it or returned no text, so that it is neither
+     * shown nor cached as a summary.
+     */
+    static String requireAnswer(String text, String problem) {
+        if (problem != null) throw new IllegalStateException("Gemini returned no answer: " + problem);
+        if (text.isBlank()) throw new IllegalStateException("Gemini returned an empty answer");
+        return text;
+    }
+}
@@ -0,0 +1,167 @@
+package com.example.weatherapp.ai;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.core5.pool.PoolStats;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestClient;
+import org.springframework.web.client.RestClientResponseException;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.BooleanSupplier;
+import java.util.function.Supplier;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * HTTP transport shared by the Gemini models: one pooled Apache HttpClient behind a {@link RestClient}, so
+ * that summary calls reuse kept-alive TLS connections instead of handshaking every time.
+ * <p>
+ * Connections are capped at {@code ai.gemini.http.max-connections} and kept alive for
+ * {@code ai.gemini.http.keep-alive}; idle ones are closed after that. Every call is bounded by
+ * {@code ai.gemini.http.connect-timeout} and {@code ai.gemini.http.read-timeout}, and {@link #execute}
+ * retries transient failures (I/O errors, HTTP 429 and 5xx) up to {@code ai.gemini.http.max-attempts}
+ * times with full-jitter exponential backoff, but never starts an attempt after
+ * {@code ai.gemini.http.deadline} has passed. Pool usage is published as {@code ai.gemini.pool.*} gauges.
+ * <p>
+ * The classic (blocking) HttpClient 5 speaks HTTP/1.1 only; HTTP/2 would need its async client, and the
+ * pooled keep-alive connections already avoid the repeated handshakes.
+ */
+@Component
+public class GeminiHttpClient {
+
+    private final RestClient client;
+    private final CloseableHttpClient httpClient;
+    private final int maxAttempts;
+    private final Duration initialBackoff;
+    private final Duration deadline;
+    private final Counter retries;
+
+    public GeminiHttpClient(RestClient.Builder builder,
+                            @Value("${ai.gemini.base-url:https://generativelanguage.googleapis.com}") String baseUrl,
+                            @Value("${ai.gemini.http.max-connections:20}") int maxConnections,
+                            @Value("${ai.gemini.http.connect-timeout:PT5S}") Duration connectTimeout,
+                            @Value("${ai.gemini.http.read-timeout:PT30S}") Duration readTimeout,
+                            @Value("${ai.gemini.http.keep-alive:PT2M}") Duration keepAlive,
+                            @Value("${ai.gemini.http.max-attempts:3}") int maxAttempts,
+                            @Value("${ai.gemini.http.initial-backoff:PT0.2S}") Duration initialBackoff,
+                            @Value("${ai.gemini.http.deadline:${ai.summary.deadline:PT30S}}") Duration deadline,
+                            MeterRegistry registry) {
+        final PoolingHttpClientConnectionManager connections = PoolingHttpClientConnectionManagerBuilder.create()
+                .setMaxConnTotal(Math.max(1, maxConnections))
+                .setMaxConnPerRoute(Math.max(1, maxConnections))
+                .setDefaultConnectionConfig(ConnectionConfig.custom()
+                        .setConnectTimeout(Timeout.of(connectTimeout))
+                        .setSocketTimeout(Timeout.of(readTimeout))
+                        .build())
+                .build();
+        this.httpClient = HttpClients.custom()
+                .setConnectionManager(connections)
+                .setDefaultRequestConfig(RequestConfig.custom()
+                        // waiting for a free pooled connection counts as connecting
+                        .setConnectionRequestTimeout(Timeout.of(connectTimeout))
+                        .setResponseTimeout(Timeout.of(readTimeout))
+                        .build())
+                .setKeepAliveStrategy((response, context) -> TimeValue.of(keepAlive))
+                .evictIdleConnections(TimeValue.of(keepAlive))
+                .evictExpiredConnections()
+                // retries are ours, with backoff and a deadline
+                .disableAutomaticRetries()
+                .build();
+        this.client = builder
+                .baseUrl(baseUrl)
+                .requestFactory(new HttpComponentsClientHttpRequestFactory(httpClient))
+                .build();
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.initialBackoff = initialBackoff;
+        this.deadline = deadline;
+        this.retries = Counter.builder("ai.gemini.retries")
+                .description("Gemini calls retried after a transient failure")
+                .register(registry);
+        gauge(registry, "ai.gemini.pool.leased", "Pooled Gemini connections in use", connections, PoolStats::getLeased);
+        gauge(registry, "ai.gemini.pool.available", "Idle pooled Gemini connections", connections, PoolStats::getAvailable);
+        gauge(registry, "ai.gemini.pool.pending", "Calls waiting for a pooled Gemini connection", connections, PoolStats::getPending);
+        gauge(registry, "ai.gemini.pool.max", "Maximum pooled Gemini connections", connections, PoolStats::getMax);
+    }
+
+    public RestClient client() {
+        return client;
+    }
+
+    /**
+     * Runs {@code call}, retrying transient failures within the attempt limit and deadline. The last
+     * failure is rethrown.
+     */
+    public <T> T execute(Supplier<T> call) {
+        return execute(call, () -> true);
+    }
+
+    /**
+     * Like {@link #execute(Supplier)}, but a failure is only retried while {@code mayRetry} holds, such as
+     * before a stream has produced any output.
+     */
+    public <T> T execute(Supplier<T> call, BooleanSupplier mayRetry) {
+        final var giveUpAt = System.nanoTime() + deadline.toNanos();
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return call.get();
+            } catch (RuntimeException e) {
+                if (attempt >= maxAttempts || !isTransient(e) || !mayRetry.getAsBoolean()) throw e;
+                final var backoff = backoff(attempt);
+                if (System.nanoTime() + backoff.toNanos() >= giveUpAt) throw e;
+                retries.increment();
+                sleep(backoff, e);
+            }
+        }
+    }
+
+    static boolean isTransient(RuntimeException e) {
+        if (e instanceof ResourceAccessException) return true;
+        if (e instanceof RestClientResponseException r) {
+            final var status = r.getStatusCode();
+            return status.value() == 429 || status.is5xxServerError();
+        }
+        return false;
+    }
+
+    // full jitter: uniform between zero and initial-backoff * 2^(attempt - 1)
+    private Duration backoff(int attempt) {
+        final var cap = initialBackoff.toMillis() << Math.min(attempt - 1, 16);
+        return Duration.ofMillis(ThreadLocalRandom.current().nextLong(cap + 1));
+    }
+
+    private static void sleep(Duration backoff, RuntimeException failure) {
+        try {
+            Thread.sleep(backoff);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw failure;
+        }
+    }
+
+    private static void gauge(MeterRegistry registry, String name, String description,
+                              PoolingHttpClientConnectionManager connections, ToDoubleFunction<PoolStats> stat) {
+        Gauge.builder(name, connections, c -> stat.applyAsDouble(c.getTotalStats()))
+                .description(description)
+                .register(registry);
+    }
+
+    @PreDestroy
+    public void close() throws IOException {
+        httpClient.close();
+    }
+}
@@ -0,0 +1,95 @@
+package com.example.weatherapp.ai;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.langchain4j.data.message.AiMessage;
+import dev.langchain4j.data.message.ChatMessage;
+import dev.langchain4j.model.StreamingResponseHandler;
+import dev.langchain4j.model.chat.StreamingChatLanguageModel;
+import dev.langchain4j.model.output.Response;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestClientResponseException;
+
+import java.io.BufferedReader;
+import java.io.InputStreamReader;
+import java.util.List;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Streaming Gemini chat model on top of the {@code streamGenerateContent} server-sent events API, so
+ * partial text can be relayed while the model is still generating. The call blocks the calling thread
+ * until the stream ends; callers run it off the request thread. Calls go through the pooled
+ * {@link GeminiHttpClient} and are only retried while no text has been relayed yet. A stream that ends
+ * blocked or without any text ends in {@code onError}, not {@code onComplete}.
+ */
+@Component
+public class GeminiStreamingChatModel implements StreamingChatLanguageModel {
+
+    private final GeminiHttpClient http;
+    private final String apiKey;
+    private final String modelName;
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    public GeminiStreamingChatModel(
+            GeminiHttpClient http,
+            @Value("${ai.gemini.api-key:}") String apiKey,
+            @Value("${ai.gemini.model:gemini-1.5-flash}") String modelName
+    ) {
+        this.http = http;
+        this.apiKey = apiKey == null ? "" : apiKey.trim();
+        this.modelName = (modelName == null || modelName.isBlank()) ? "gemini-1.5-flash" : modelName;
+    }
+
+    @Override
+    public void generate(List<ChatMessage> messages, StreamingResponseHandler<AiMessage> handler) {
+        final var text = new StringBuilder();
+        final var problem = new String[1];
+        try {
+            http.execute(() -> http.client().post()
+                    .uri("/v1beta/models/{model}:streamGenerateContent?alt=sse", modelName)
+                    .header("x-goog-api-key", apiKey)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .body(GeminiContent.requestBody(messages))
+                    .exchange((request, response) -> {
+                        if (response.getStatusCode().isError()) {
+                            throw new RestClientResponseException("Gemini responded with HTTP " + response.getStatusCode().value(),
+                                    response.getStatusCode(), response.getStatusText(), response.getHeaders(), null, null);
+                        }
+                        try (final var reader = new BufferedReader(new InputStreamReader(response.getBody(), UTF_8))) {
+                            String line;
+                            while ((line = reader.readLine()) != null) {
+                                if (!line.startsWith("data:")) continue;
+                                final var chunk = chunk(line.substring(5).trim());
+                                if (chunk == null) continue;
+                                final var chunkProblem = GeminiContent.problem(chunk);
+                                if (chunkProblem != null) problem[0] = chunkProblem;
+                                final var chunkText = GeminiContent.text(chunk);
+                                if (chunkText.isEmpty()) continue;
+                                text.append(chunkText);
+                                handler.onNext(chunkText);
+                            }
+                        }
+                        return null;
+                    }), text::isEmpty);
+            GeminiContent.requireAnswer(text.toString(), problem[0]);
+        } catch (RuntimeException e) {
+            handler.onError(e);
+            return;
+        }
+        handler.onComplete(Response.from(AiMessage.from(text.toString())));
+    }
+
+    // one SSE data line is a complete GenerateContentResponse; null when it cannot be read
+    private JsonNode chunk(String json) {
+        if (json.isEmpty()) return null;
+        try {
+            return mapper.readTree(json);
+        } catch (JsonProcessingException e) {
+            return null;
+        }
+    }
+}
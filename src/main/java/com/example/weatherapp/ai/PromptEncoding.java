@@ -0,0 +1,32 @@
+package com.example.weatherapp.ai;
+
+import static java.util.Locale.ROOT;
+
+/**
+ * How the forecast is embedded in the summary prompt ({@code ai.prompt.encoding}).
+ */
+public enum PromptEncoding {
+
+    /**
+     * The Open-Meteo report serialized as-is.
+     */
+    JSON("the JSON weather report from Open-Meteo (hourly arrays for next ~72 hours)", "Weather JSON"),
+
+    /**
+     * A {@link ForecastDigest} with one line per block of {@code ai.prompt.digest-hours} hours.
+     */
+    DIGEST("the weather digest from Open-Meteo (one line per time block for the next ~72 hours)", "Weather digest");
+
+    final String description;
+    final String heading;
+
+    PromptEncoding(String description, String heading) {
+        this.description = description;
+        this.heading = heading;
+    }
+
+    static PromptEncoding parse(String value) {
+        if (value == null || value.isBlank()) return DIGEST;
+        return valueOf(value.trim().toUpperCase(ROOT));
+    }
+}
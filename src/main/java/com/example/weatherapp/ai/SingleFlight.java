@@ -0,0 +1,84 @@
+package com.example.weatherapp.ai;
+
+import io.micrometer.core.instrument.Counter;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Deduplicates concurrent calls per key: while a call is in flight, further calls for the same key wait
+ * for its result instead of starting their own. A key is forgotten as soon as its call completes, so
+ * this keeps nothing beyond the in-flight calls; caching results is up to the caller.
+ * <p>
+ * Every call that waits for another one instead of running is counted in {@code coalesced}.
+ */
+final class SingleFlight<K, V> {
+
+    private final ConcurrentHashMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+    private final Counter coalesced;
+
+    SingleFlight(Counter coalesced) {
+        this.coalesced = coalesced;
+    }
+
+    /**
+     * Runs {@code call} on this thread, unless a call for {@code key} is already in flight; then
+     * {@code await} waits for that call's result instead. Failures are shared the same way.
+     */
+    V call(K key, Supplier<V> call, Function<CompletableFuture<V>, V> await) {
+        final var flight = new CompletableFuture<V>();
+        final var existing = inFlight.putIfAbsent(key, flight);
+        if (existing != null) {
+            coalesced.increment();
+            return await.apply(existing);
+        }
+        flight.whenComplete((result, error) -> inFlight.remove(key, flight));
+        try {
+            final var result = call.get();
+            flight.complete(result);
+            return result;
+        } catch (RuntimeException e) {
+            flight.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    /**
+     * Starts an asynchronous call for {@code key}: {@code launch} must eventually complete the future it
+     * is given. Does nothing if a call for the key is already in flight.
+     *
+     * @return whether the call was started
+     */
+    boolean start(K key, Consumer<CompletableFuture<V>> launch) {
+        final var flight = new CompletableFuture<V>();
+        if (inFlight.putIfAbsent(key, flight) != null) {
+            return false;
+        }
+        flight.whenComplete((result, error) -> inFlight.remove(key, flight));
+        try {
+            launch.accept(flight);
+        } catch (RuntimeException e) {
+            flight.completeExceptionally(e);
+            throw e;
+        }
+        return true;
+    }
+
+    /**
+     * The result of the call in flight for {@code key}, or {@code null} when there is none.
+     */
+    CompletableFuture<V> join(K key) {
+        final var flight = inFlight.get(key);
+        if (flight != null) {
+            coalesced.increment();
+        }
+        return flight;
+    }
+
+    int size() {
+        return inFlight.size();
+    }
+}
@@ -0,0 +1,16 @@
+package com.example.weatherapp.ai;
+
+/**
+ * Thrown when all model call slots are taken; callers should answer "busy, retry shortly" instead of queueing.
+ */
+public class SummaryBusyException extends RuntimeException {
+
+    /**
+     * Text shown to users instead of a summary.
+     */
+    public static final String USER_MESSAGE = "AI summary is busy right now. Please try again in a few seconds.";
+
+    public SummaryBusyException(int maxConcurrency) {
+        super("All " + maxConcurrency + " AI summary slots are in use.");
+    }
+}
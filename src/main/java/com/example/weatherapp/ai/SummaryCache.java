@@ -0,0 +1,132 @@
+package com.example.weatherapp.ai;
+
+import com.example.weatherapp.weather.WeatherReport;
+import com.example.weatherapp.weather.WeatherReport.Hourly.Series;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Size-bounded, TTL-bounded LRU of generated summaries, keyed on a quantized fingerprint of the
+ * forecast so that identical or near-identical requests reuse one model call.
+ */
+@Component
+public class SummaryCache {
+
+    // quantization steps: forecasts differing by less than these produce the same summary key
+    private static final double TEMPERATURE_STEP = 1.0;
+    private static final double PRECIPITATION_STEP = 0.5;
+    private static final double WIND_STEP = 5.0;
+    private static final double HUMIDITY_STEP = 10.0;
+
+    private final int maxSize;
+    private final Duration ttl;
+    private final double gridDegrees;
+    private final Clock clock = Clock.systemUTC();
+    private final Map<Key, Entry> entries;
+    private final Counter hits;
+    private final Counter misses;
+
+    public SummaryCache(@Value("${ai.summary.cache.max-size:1000}") int maxSize,
+                        @Value("${ai.summary.cache.ttl:PT30M}") Duration ttl,
+                        @Value("${ai.summary.cache.grid-degrees:0.1}") double gridDegrees,
+                        MeterRegistry registry) {
+        this.maxSize = Math.max(0, maxSize);
+        this.ttl = ttl;
+        this.gridDegrees = gridDegrees > 0 ? gridDegrees : 0.1;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, Entry> eldest) {
+                return size() > SummaryCache.this.maxSize;
+            }
+        };
+        this.hits = Counter.builder("ai.summary.cache").tag("result", "hit")
+                .description("AI summary cache lookups").register(registry);
+        this.misses = Counter.builder("ai.summary.cache").tag("result", "miss")
+                .description("AI summary cache lookups").register(registry);
+        registry.gauge("ai.summary.cache.size", this, SummaryCache::size);
+    }
+
+    /**
+     * Cache key for one summary request.
+     */
+    public record Key(long latCell, long lonCell, String timezone, String city, String model, long forecast) {
+    }
+
+    public Key keyFor(WeatherReport report, String timezone, String city, String model) {
+        final var lat = report != null && report.latitude() != null ? report.latitude() : Double.NaN;
+        final var lon = report != null && report.longitude() != null ? report.longitude() : Double.NaN;
+        return new Key(cell(lat), cell(lon), timezone, city, model, fingerprint(report != null ? report.hourly() : null));
+    }
+
+    public String get(Key key) {
+        final Entry entry;
+        synchronized (entries) {
+            entry = entries.get(key);
+            if (entry != null && !clock.instant().isBefore(entry.expiresAt())) {
+                entries.remove(key);
+                misses.increment();
+                return null;
+            }
+        }
+        if (entry == null) {
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        return entry.summary();
+    }
+
+    public void put(Key key, String summary) {
+        if (maxSize == 0 || summary == null) return;
+        synchronized (entries) {
+            entries.put(key, new Entry(summary, clock.instant().plus(ttl)));
+        }
+    }
+
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    private long cell(double degrees) {
+        return Double.isNaN(degrees) ? Long.MIN_VALUE : Math.round(degrees / gridDegrees);
+    }
+
+    /**
+     * 64-bit hash over the hourly series after rounding every value to its quantization step.
+     */
+    static long fingerprint(WeatherReport.Hourly hourly) {
+        if (hourly == null) return 0L;
+        var h = 1125899906842597L;
+        if (hourly.size() > 0) {
+            h = 31 * h + hourly.size();
+            h = 31 * h + hourly.epochSecond(0);
+        }
+        h = mix(h, hourly, Series.TEMPERATURE_2M, TEMPERATURE_STEP);
+        h = mix(h, hourly, Series.PRECIPITATION, PRECIPITATION_STEP);
+        h = mix(h, hourly, Series.WIND_SPEED_10M, WIND_STEP);
+        h = mix(h, hourly, Series.RELATIVE_HUMIDITY_2M, HUMIDITY_STEP);
+        return h;
+    }
+
+    private static long mix(long h, WeatherReport.Hourly hourly, Series series, double step) {
+        if (!hourly.has(series)) return 31 * h - 1;
+        for (int i = 0; i < hourly.size(); i++) {
+            final var v = hourly.value(series, i);
+            h = 31 * h + (Double.isNaN(v) ? Long.MIN_VALUE : Math.round(v / step));
+        }
+        return h;
+    }
+
+    private record Entry(String summary, Instant expiresAt) {
+    }
+}
@@ -0,0 +1,170 @@
+package com.example.weatherapp.ai;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static java.util.Locale.ROOT;
+
+/**
+ * Runs remote model calls away from the servlet workers, so that slow Gemini responses cannot starve
+ * city search and page rendering.
+ * <p>
+ * At most {@code ai.summary.max-concurrency} calls are in flight; further calls fail fast with
+ * {@link SummaryBusyException} after waiting at most {@code ai.summary.acquire-timeout}. In the default
+ * {@code virtual} execution mode every call runs on its own virtual thread and the caller gives up after
+ * {@code ai.summary.deadline}; in {@code caller} mode the call runs on the request thread (no deadline).
+ * A slot is only freed once the model call has really returned, so the cap holds even for abandoned calls;
+ * a call abandoned before its thread started frees its slot right away.
+ */
+@Component
+public class SummaryExecutor {
+
+    private final boolean offload;
+    private final int maxConcurrency;
+    private final Semaphore permits;
+    private final Duration acquireTimeout;
+    private final Duration deadline;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final Counter rejected;
+
+    public SummaryExecutor(@Value("${ai.summary.execution:virtual}") String mode,
+                           @Value("${ai.summary.max-concurrency:16}") int maxConcurrency,
+                           @Value("${ai.summary.acquire-timeout:PT0S}") Duration acquireTimeout,
+                           @Value("${ai.summary.deadline:PT30S}") Duration deadline,
+                           MeterRegistry registry) {
+        this.offload = !"caller".equals(mode == null ? "" : mode.trim().toLowerCase(ROOT));
+        this.maxConcurrency = Math.max(1, maxConcurrency);
+        this.permits = new Semaphore(this.maxConcurrency);
+        this.acquireTimeout = acquireTimeout;
+        this.deadline = deadline;
+        this.rejected = Counter.builder("ai.summary.rejected")
+                .description("Model calls refused because all slots were in use")
+                .register(registry);
+        registry.gauge("ai.summary.inflight", permits, p -> this.maxConcurrency - p.availablePermits());
+    }
+
+    /**
+     * Runs a blocking model call within the concurrency cap and deadline and returns its result.
+     *
+     * @throws SummaryBusyException when no slot frees up in time
+     */
+    public <T> T call(Callable<T> task) {
+        acquire();
+        if (!offload) {
+            try {
+                return task.call();
+            } catch (RuntimeException e) {
+                throw e;
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            } finally {
+                permits.release();
+            }
+        }
+        // claimed by whoever releases the slot: the task once it starts, or the caller if it never will
+        final var claimed = new AtomicBoolean();
+        final Future<T> future;
+        try {
+            future = executor.submit(() -> {
+                if (!claimed.compareAndSet(false, true)) throw new CancellationException();
+                try {
+                    return task.call();
+                } finally {
+                    permits.release();
+                }
+            });
+        } catch (RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+        try {
+            return future.get(deadline.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            abandon(future, claimed);
+            throw new IllegalStateException("model call exceeded the " + deadline.toMillis() + " ms deadline");
+        } catch (InterruptedException e) {
+            abandon(future, claimed);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("interrupted while waiting for the model", e);
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof RuntimeException re ? re : new IllegalStateException(e.getCause());
+        }
+    }
+
+    /**
+     * Waits for a model call that is already running elsewhere, such as one started by {@link #execute}.
+     * Takes no slot; in {@code virtual} mode the caller still gives up after {@code ai.summary.deadline},
+     * but the call itself keeps running.
+     */
+    public <T> T await(Future<T> future) {
+        try {
+            return offload ? future.get(deadline.toMillis(), TimeUnit.MILLISECONDS) : future.get();
+        } catch (TimeoutException e) {
+            throw new IllegalStateException("model call exceeded the " + deadline.toMillis() + " ms deadline");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("interrupted while waiting for the model", e);
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof RuntimeException re ? re : new IllegalStateException(e.getCause());
+        }
+    }
+
+    /**
+     * Starts a long-running model interaction (such as a stream) on a virtual thread within the concurrency cap.
+     *
+     * @throws SummaryBusyException when no slot frees up in time
+     */
+    public void execute(Runnable task) {
+        acquire();
+        try {
+            executor.execute(() -> {
+                try {
+                    task.run();
+                } finally {
+                    permits.release();
+                }
+            });
+        } catch (RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    // a cancelled task that never started never runs its finally block, so its slot is returned here
+    private void abandon(Future<?> future, AtomicBoolean claimed) {
+        future.cancel(true);
+        if (claimed.compareAndSet(false, true)) {
+            permits.release();
+        }
+    }
+
+    private void acquire() {
+        try {
+            if (permits.tryAcquire(acquireTimeout.toMillis(), TimeUnit.MILLISECONDS)) return;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        rejected.increment();
+        throw new SummaryBusyException(maxConcurrency);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,9 @@
+package com.example.weatherapp.ai;
+
+import com.example.weatherapp.weather.WeatherReport;
+
+/**
+ * One entry of a batch summary request: the same inputs as a single {@code /api/ai-summary} call.
+ */
+public record SummaryRequest(WeatherReport report, String timezone, String city) {
+}
@@ -0,0 +1,17 @@
+package com.example.weatherapp.ai;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * Outcome of one batch entry. {@code summary} always holds displayable text, including the fallback
+ * message when the entry did not succeed.
+ */
+public record SummaryResult(Status status, String summary) {
+
+    public enum Status {
+        @JsonProperty("ok") OK,
+        @JsonProperty("unavailable") UNAVAILABLE,
+        @JsonProperty("busy") BUSY,
+        @JsonProperty("not_configured") NOT_CONFIGURED
+    }
+}
@@ -2,6 +2,7 @@ package com.example.weatherapp.city;
 
 import com.fasterxml.jackson.annotation.JsonAlias;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonProperty;
 
 @JsonIgnoreProperties(ignoreUnknown = true)
@@ -13,14 +14,22 @@ public record City(
         @JsonAlias({"lng", "lon"})
         @JsonProperty("lon") Double lon,
         // Optional field in some datasets (ignored for formatting)
-        @JsonProperty("state") String state) {
+        @JsonProperty("state") String state,
+        // Optional; ranks bigger cities first among equally good matches (ignored for formatting)
+        @JsonAlias("pop")
+        @JsonInclude(JsonInclude.Include.NON_NULL)
+        @JsonProperty("population") Long population) {
+
+    public City(String name, String country, Double lat, Double lon, String state) {
+        this(name, country, lat, lon, state, null);
+    }
 
     public String toSuggestionString() {
         String n = name != null ? name : "";
         String c = country != null ? country : "";
         String la = lat != null ? String.valueOf(trimDouble(lat)) : "";
         String lo = lon != null ? String.valueOf(trimDouble(lon)) : "";
-        return String.format("%s %s (%s,%s)", n, c, la, lo).trim();
+        return (n + " " + c + " (" + la + "," + lo + ")").trim();
     }
 
     private static double trimDouble(Double d) {
@@ -0,0 +1,27 @@
+package com.example.weatherapp.city;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Opt-in ({@code cities.warmup.enabled=true}) eager load of the city dataset once the application is up,
+ * so the first search after a deploy does not pay for parsing and indexing.
+ */
+@Component
+@ConditionalOnProperty(name = "cities.warmup.enabled", havingValue = "true")
+public class CityDataWarmup {
+
+    private final CitySearchService service;
+
+    public CityDataWarmup(CitySearchService service) {
+        this.service = service;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        // off the main thread: readiness is reported by CitySearchHealthIndicator once the index is built
+        Thread.ofPlatform().name("city-warmup").daemon().start(service::warmUp);
+    }
+}
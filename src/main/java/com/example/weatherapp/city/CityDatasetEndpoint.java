@@ -0,0 +1,44 @@
+package com.example.weatherapp.city;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.boot.actuate.endpoint.web.WebEndpointResponse;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * {@code /actuator/cities}: GET shows the loaded dataset, POST rebuilds the index from it (for example
+ * after replacing the file at {@code cities.path}) and reports how long that took.
+ */
+@Component
+@Endpoint(id = "cities")
+public class CityDatasetEndpoint {
+
+    private final CitySearchService service;
+
+    public CityDatasetEndpoint(CitySearchService service) {
+        this.service = service;
+    }
+
+    @ReadOperation
+    public Map<String, Object> status() {
+        final var status = new LinkedHashMap<String, Object>();
+        status.put("loaded", service.isLoaded());
+        status.put("source", service.source());
+        status.put("cities", service.size());
+        status.put("lastReload", service.lastReload());
+        return status;
+    }
+
+    @WriteOperation
+    public WebEndpointResponse<Object> reload() {
+        try {
+            return new WebEndpointResponse<>(service.reload());
+        } catch (IllegalStateException e) {
+            return new WebEndpointResponse<>(Map.of("error", e.getMessage()), WebEndpointResponse.STATUS_INTERNAL_SERVER_ERROR);
+        }
+    }
+}
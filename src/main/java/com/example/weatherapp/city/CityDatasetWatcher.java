@@ -0,0 +1,102 @@
+package com.example.weatherapp.city;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import static java.nio.file.StandardWatchEventKinds.ENTRY_CREATE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_MODIFY;
+
+/**
+ * Opt-in ({@code cities.watch.enabled=true}) reload of the external dataset at {@code cities.path}
+ * whenever the file is created or modified. Bursts of events (a copy in progress) are collapsed into one
+ * reload once the file has been quiet for {@code cities.watch.debounce}.
+ */
+@Component
+@ConditionalOnProperty(name = "cities.watch.enabled", havingValue = "true")
+public class CityDatasetWatcher {
+
+    private static final Logger log = LoggerFactory.getLogger(CityDatasetWatcher.class);
+
+    private final CitySearchService service;
+    private final Path file;
+    private final Duration debounce;
+    private volatile WatchService watchService;
+
+    public CityDatasetWatcher(CitySearchService service,
+                              @Value("${cities.path:}") String path,
+                              @Value("${cities.watch.debounce:PT1S}") Duration debounce) {
+        this.service = service;
+        this.file = path == null || path.isBlank() ? null : Path.of(path.trim()).toAbsolutePath();
+        this.debounce = debounce;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() throws IOException {
+        if (file == null) return;
+        watchService = FileSystems.getDefault().newWatchService();
+        file.getParent().register(watchService, ENTRY_CREATE, ENTRY_MODIFY);
+        Thread.ofPlatform().name("city-watcher").daemon().start(this::watch);
+    }
+
+    private void watch() {
+        try {
+            while (true) {
+                final var changed = concernsDataset(watchService.take());
+                // keep draining until the file has been quiet for the debounce period
+                if (!changed) continue;
+                WatchKey next;
+                while ((next = watchService.poll(debounce.toMillis(), TimeUnit.MILLISECONDS)) != null) {
+                    concernsDataset(next);
+                }
+                reload();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ClosedWatchServiceException e) {
+            // shutting down
+        }
+    }
+
+    // consumes the key's events and reports whether any of them is about the dataset file
+    private boolean concernsDataset(WatchKey key) {
+        var changed = false;
+        for (final var event : key.pollEvents()) {
+            if (event.context() instanceof Path name && name.equals(file.getFileName())) changed = true;
+        }
+        key.reset();
+        return changed;
+    }
+
+    private void reload() {
+        try {
+            service.reload();
+        } catch (IllegalStateException e) {
+            // unreadable (e.g. half-written) file: the current index stays; the next change retries
+            log.warn("City dataset reload failed, keeping the current index: {}", e.getMessage());
+        } catch (RuntimeException e) {
+            // anything else must not end the watcher thread either, or hot reload stops for good
+            log.error("City dataset reload failed, keeping the current index", e);
+        }
+    }
+
+    @PreDestroy
+    public void stop() throws IOException {
+        final var ws = watchService;
+        if (ws != null) ws.close();
+    }
+}
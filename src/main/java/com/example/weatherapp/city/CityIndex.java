@@ -0,0 +1,283 @@
+package com.example.weatherapp.city;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.IntPredicate;
+
+import static java.util.Locale.ROOT;
+
+/**
+ * Immutable substring index over the loaded cities, built once when the dataset is loaded.
+ * <p>
+ * Every city is compiled up front (see {@link CompiledCity}) and every trigram of its normalized
+ * name and state is mapped to the ascending list of city ids containing it. A query walks the
+ * shortest posting list of its own trigrams and only verifies those candidates, instead of
+ * scanning and lower-casing the whole dataset. Name prefixes also go into a {@link FuzzyIndex} for
+ * typo-tolerant lookups, and coordinates into a {@link SpatialIndex} for nearest-city lookups.
+ * Results of all queries of up to three characters are precomputed in {@link ShortQueries}.
+ * <p>
+ * Every row is indexed, including rows whose rendered suggestion is identical to another's; those are
+ * only collapsed when results are built (see {@link #duplicateGroup}), so lookups that are not about
+ * suggestions, such as {@link #nearest}, still see every city.
+ */
+final class CityIndex {
+
+    private static final int GRAM = 3;
+    private static final int[] NO_IDS = new int[0];
+
+    static final CityIndex EMPTY = build(List.of());
+
+    private final List<City> cities;
+    private final CompiledCity[] entries;
+    private final Map<String, int[]> postings;
+    private final SpatialIndex spatial;
+    private final FuzzyIndex fuzzy;
+    // position of every id in the static ranking, see byRank
+    private final int[] rankOf;
+    private final int[] duplicateGroup;
+    private final String version;
+    private final ShortQueries shortQueries;
+
+    private CityIndex(List<City> cities, CompiledCity[] entries, Map<String, int[]> postings, SpatialIndex spatial,
+                      FuzzyIndex fuzzy, int[] rankOf, int[] duplicateGroup, ShortQueries shortQueries) {
+        this.cities = cities;
+        this.entries = entries;
+        this.postings = postings;
+        this.spatial = spatial;
+        this.fuzzy = fuzzy;
+        this.rankOf = rankOf;
+        this.duplicateGroup = duplicateGroup;
+        this.shortQueries = shortQueries;
+        this.version = version(entries);
+    }
+
+    static CityIndex build(List<City> cities) {
+        final var entries = new CompiledCity[cities.size()];
+        final var lat = new double[cities.size()];
+        final var lon = new double[cities.size()];
+        for (int i = 0; i < entries.length; i++) {
+            final var city = cities.get(i);
+            entries[i] = CompiledCity.of(i, city);
+            lat[i] = city.lat() != null ? city.lat() : Double.NaN;
+            lon[i] = city.lon() != null ? city.lon() : Double.NaN;
+        }
+        final var spatial = SpatialIndex.build(lat, lon);
+        final var builders = new HashMap<String, IdList>();
+        for (int id = 0; id < entries.length; id++) {
+            addGrams(builders, entries[id].name(), id);
+            addGrams(builders, entries[id].state(), id);
+        }
+        final var postings = new HashMap<String, int[]>(builders.size() * 4 / 3 + 1);
+        builders.forEach((gram, ids) -> postings.put(gram, ids.toArray()));
+        final var byRank = byRank(entries);
+        final var rankOf = new int[entries.length];
+        for (int rank = 0; rank < byRank.length; rank++) rankOf[byRank[rank]] = rank;
+        final var duplicateGroup = duplicateGroups(entries, byRank);
+        return new CityIndex(cities, entries, postings, spatial, FuzzyIndex.build(entries, byRank, duplicateGroup),
+                rankOf, duplicateGroup, ShortQueries.build(entries, byRank, duplicateGroup));
+    }
+
+    /**
+     * For every id, the best-ranked id with the same suggestion, or -1 when no other entry renders the same
+     * suggestion. Identical suggestions are indistinguishable to the user, so results show each one once.
+     */
+    private static int[] duplicateGroups(CompiledCity[] entries, int[] byRank) {
+        final var groups = new int[entries.length];
+        Arrays.fill(groups, -1);
+        final var first = new HashMap<String, Integer>(entries.length * 4 / 3 + 1);
+        for (final var id : byRank) {
+            final var best = first.putIfAbsent(entries[id].suggestion(), id);
+            if (best == null) continue;
+            groups[best] = best;
+            groups[id] = best;
+        }
+        return groups;
+    }
+
+    /**
+     * All ids in static rank order: higher {@linkplain CompiledCity#score score} first, then shorter name,
+     * then alphabetical, then dataset order. This is the search ranking among matches that are equally
+     * prefix or non-prefix matches (see {@link TopK}), computed once per dataset.
+     */
+    private static int[] byRank(CompiledCity[] entries) {
+        final var order = new ArrayList<Integer>(entries.length);
+        for (int id = 0; id < entries.length; id++) order.add(id);
+        order.sort(Comparator.<Integer>comparingInt(id -> -entries[id].score())
+                .thenComparingInt(id -> entries[id].nameLength())
+                .thenComparing(id -> entries[id].name())
+                .thenComparingInt(id -> id));
+        final var ids = new int[entries.length];
+        for (int i = 0; i < ids.length; i++) ids[i] = order.get(i);
+        return ids;
+    }
+
+    /**
+     * Search form of a name or query: lower-cased, with accents and other combining marks removed and a
+     * few letters that do not decompose spelled out, so "Zürich", "zurich" and "ZURICH" all read "zurich".
+     */
+    static String normalize(String s) {
+        if (s == null) return "";
+        final var lower = s.toLowerCase(ROOT);
+        if (isAscii(lower)) return lower;
+        final var decomposed = Normalizer.normalize(lower, Normalizer.Form.NFD);
+        final var out = new StringBuilder(decomposed.length());
+        for (int i = 0; i < decomposed.length(); i++) {
+            final var c = decomposed.charAt(i);
+            if (Character.getType(c) == Character.NON_SPACING_MARK) continue;
+            switch (c) {
+                case 'ß' -> out.append("ss");
+                case 'æ' -> out.append("ae");
+                case 'œ' -> out.append("oe");
+                case 'ø' -> out.append('o');
+                case 'ł' -> out.append('l');
+                case 'đ' -> out.append('d');
+                case 'ı' -> out.append('i');
+                default -> out.append(c);
+            }
+        }
+        return out.toString();
+    }
+
+    private static boolean isAscii(String s) {
+        for (int i = 0; i < s.length(); i++) {
+            if (s.charAt(i) >= 0x80) return false;
+        }
+        return true;
+    }
+
+    int size() {
+        return entries.length;
+    }
+
+    /**
+     * Hash of everything a search result depends on (matched text, scores and rendered suggestions, in order);
+     * equal for two indexes built from the same dataset.
+     */
+    String version() {
+        return version;
+    }
+
+    ShortQueries shortQueries() {
+        return shortQueries;
+    }
+
+    private static String version(CompiledCity[] entries) {
+        var h = 1125899906842597L;
+        for (final var entry : entries) {
+            h = 31 * h + entry.name().hashCode();
+            h = 31 * h + entry.state().hashCode();
+            h = 31 * h + entry.score();
+            h = 31 * h + entry.suggestion().hashCode();
+        }
+        return Long.toHexString(31 * h + entries.length);
+    }
+
+    CompiledCity entry(int id) {
+        return entries[id];
+    }
+
+    /**
+     * Position of {@code id} in the static ranking; lower is better.
+     */
+    int rank(int id) {
+        return rankOf[id];
+    }
+
+    /**
+     * The group of entries rendering the same suggestion as {@code id}, identified by its best-ranked
+     * member, or -1 when that suggestion is unique. Entries of one group share name, country and
+     * coordinates, so they are equally prefix matches, but may still differ in state and rank.
+     */
+    int duplicateGroup(int id) {
+        return duplicateGroup[id];
+    }
+
+    City city(int id) {
+        return cities.get(entries[id].source());
+    }
+
+    /**
+     * The up to {@code k} cities with coordinates closest to the given point, nearest first.
+     */
+    List<NearbyCity> nearest(double lat, double lon, int k) {
+        final var nearest = spatial.nearest(lat, lon, k);
+        final var result = new ArrayList<NearbyCity>(nearest.ids().length);
+        for (int i = 0; i < nearest.ids().length; i++) {
+            result.add(new NearbyCity(city(nearest.ids()[i]), nearest.distancesKm()[i]));
+        }
+        return result;
+    }
+
+    /**
+     * Reports, in ascending id order, every city whose normalized name or state contains {@code q},
+     * until {@code action} returns {@code false}.
+     *
+     * @param q an already normalized, non-empty query
+     * @return the number of candidate entries examined
+     */
+    int forEachMatch(String q, IntPredicate action) {
+        if (q.length() < GRAM) {
+            // too short for a trigram lookup; the normalized arrays are still cheap to scan
+            for (int id = 0; id < entries.length; id++) {
+                if (entries[id].contains(q) && !action.test(id)) return id + 1;
+            }
+            return entries.length;
+        }
+        int[] candidates = null;
+        for (int i = 0; i + GRAM <= q.length(); i++) {
+            final var ids = postings.getOrDefault(q.substring(i, i + GRAM), NO_IDS);
+            if (candidates == null || ids.length < candidates.length) candidates = ids;
+            if (candidates.length == 0) return 0;
+        }
+        final var exact = q.length() == GRAM;
+        for (int i = 0; i < candidates.length; i++) {
+            final var id = candidates[i];
+            if ((exact || entries[id].contains(q)) && !action.test(id)) return i + 1;
+        }
+        return candidates.length;
+    }
+
+    /**
+     * Suggestions for names within a small edit distance of {@code q} (see {@link FuzzyIndex}), closest
+     * first, then by {@linkplain #rank static rank}.
+     *
+     * @param q an already normalized, non-empty query
+     */
+    List<String> fuzzySuggestions(String q, int limit) {
+        final var ids = fuzzy.matches(q, limit);
+        final var result = new ArrayList<String>(ids.length);
+        for (final var id : ids) {
+            result.add(entries[id].suggestion());
+        }
+        return result;
+    }
+
+    private static void addGrams(Map<String, IdList> builders, String s, int id) {
+        for (int i = 0; i + GRAM <= s.length(); i++) {
+            builders.computeIfAbsent(s.substring(i, i + GRAM), k -> new IdList()).add(id);
+        }
+    }
+
+    /**
+     * Growable posting list; ids arrive in ascending order so a repeat can only be the last entry.
+     */
+    private static final class IdList {
+        private int[] ids = new int[4];
+        private int size;
+
+        void add(int id) {
+            if (size > 0 && ids[size - 1] == id) return;
+            if (size == ids.length) ids = Arrays.copyOf(ids, size * 2);
+            ids[size++] = id;
+        }
+
+        int[] toArray() {
+            return Arrays.copyOf(ids, size);
+        }
+    }
+}
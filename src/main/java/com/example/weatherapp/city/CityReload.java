@@ -0,0 +1,16 @@
+package com.example.weatherapp.city;
+
+import java.time.Instant;
+
+/**
+ * Outcome of {@link CitySearchService#reload()}.
+ *
+ * @param source         where the dataset was read from
+ * @param cities         number of indexed cities
+ * @param durationMillis time to read the dataset and build the index
+ * @param heapDeltaBytes heap in use after the build minus before it; approximate, as it includes
+ *                       parsing garbage and excludes memory-mapped snapshots
+ * @param completedAt    when the new index was published
+ */
+public record CityReload(String source, int cities, long durationMillis, long heapDeltaBytes, Instant completedAt) {
+}
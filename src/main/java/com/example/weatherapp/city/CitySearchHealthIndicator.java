@@ -0,0 +1,31 @@
+package com.example.weatherapp.city;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.stereotype.Component;
+
+/**
+ * Reports the city search as out of service until the warm-up has built the index, so that the
+ * readiness probe only lets traffic in once search is hot. With warm-up disabled the dataset is
+ * loaded lazily on the first search and the indicator is always up.
+ */
+@Component
+public class CitySearchHealthIndicator implements HealthIndicator {
+
+    private final CitySearchService service;
+    private final boolean warmup;
+
+    public CitySearchHealthIndicator(CitySearchService service,
+                                     @Value("${cities.warmup.enabled:false}") boolean warmup) {
+        this.service = service;
+        this.warmup = warmup;
+    }
+
+    @Override
+    public Health health() {
+        if (!warmup) return Health.up().withDetail("mode", "lazy").build();
+        if (service.isLoaded()) return Health.up().withDetail("mode", "warmup").build();
+        return Health.outOfService().withDetail("mode", "warmup").build();
+    }
+}
@@ -2,18 +2,29 @@ package com.example.weatherapp.city;
 
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.core.io.ClassPathResource;
 import org.springframework.stereotype.Service;
 
 import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
 import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.locks.ReentrantLock;
-import java.util.stream.Collectors;
+import java.util.function.Supplier;
 
-import static java.lang.Integer.MAX_VALUE;
-import static java.util.Locale.ROOT;
-import static java.util.Objects.compare;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
 
 @Service
 public class CitySearchService {
@@ -21,65 +32,359 @@ public class CitySearchService {
     private static final String CLASSPATH_JSON = "cities.json";
 
     private final ReentrantLock lock = new ReentrantLock();
-    private volatile List<City> cached;
+    // the published index; replaced as a whole by reload(), never modified
+    private volatile CityIndex cached;
+    private volatile String source = "none";
+    private volatile CityReload lastReload;
+    // the jar's cities.bin, unpacked once and mapped again on every reload; guarded by lock
+    private Path unpackedSnapshot;
+
+    private final Path externalPath;
+    private final int resultCacheSize;
+    // recent results, access-ordered; an entry only counts as a hit against the index it was computed on
+    private final Map<Query, CachedResult> results;
+    // queries missed once and not (yet) admitted to results, access-ordered
+    private final Map<Query, Boolean> candidates;
 
     private final ObjectMapper mapper = new ObjectMapper();
+    private final Timer loadTimer;
+    private final Timer searchTimer;
+    private final Timer fuzzyTimer;
+    private final DistributionSummary candidatesScanned;
+    private final DistributionSummary resultsReturned;
+    private final Timer nearestTimer;
+    private final Counter precomputedHits;
+    private final Counter resultCacheHits;
+    private final Counter resultCacheMisses;
+    private final MeterRegistry registry;
+
+    public CitySearchService(MeterRegistry registry,
+                             @Value("${cities.path:}") String path,
+                             @Value("${cities.search.cache.max-size:1000}") int resultCacheSize) {
+        this.registry = registry;
+        this.externalPath = path == null || path.isBlank() ? null : Path.of(path.trim());
+        this.resultCacheSize = Math.max(0, resultCacheSize);
+        this.results = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Query, CachedResult> eldest) {
+                return size() > CitySearchService.this.resultCacheSize;
+            }
+        };
+        this.candidates = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Query, Boolean> eldest) {
+                return size() > CitySearchService.this.resultCacheSize;
+            }
+        };
+        this.loadTimer = Timer.builder("cities.load")
+                .description("Time to load and index the city dataset")
+                .register(registry);
+        this.searchTimer = Timer.builder("cities.search")
+                .description("City suggestion query latency")
+                .publishPercentileHistogram()
+                .register(registry);
+        this.fuzzyTimer = Timer.builder("cities.search.fuzzy")
+                .description("Typo-tolerant city suggestion query latency")
+                .publishPercentileHistogram()
+                .register(registry);
+        this.candidatesScanned = DistributionSummary.builder("cities.search.candidates")
+                .description("Index entries examined per query")
+                .publishPercentileHistogram()
+                .register(registry);
+        this.resultsReturned = DistributionSummary.builder("cities.search.results")
+                .description("Suggestions returned per query")
+                .register(registry);
+        this.nearestTimer = Timer.builder("cities.nearest")
+                .description("Nearest-city lookup latency")
+                .publishPercentileHistogram()
+                .register(registry);
+        this.precomputedHits = Counter.builder("cities.search.cache").tag("tier", "precomputed").tag("result", "hit")
+                .description("City search result cache lookups").register(registry);
+        this.resultCacheHits = Counter.builder("cities.search.cache").tag("tier", "lru").tag("result", "hit")
+                .description("City search result cache lookups").register(registry);
+        this.resultCacheMisses = Counter.builder("cities.search.cache").tag("tier", "lru").tag("result", "miss")
+                .description("City search result cache lookups").register(registry);
+        registry.gauge("cities.search.cache.size", results, CitySearchService::synchronizedSize);
+        registry.gauge("cities.index.size", this, CitySearchService::size);
+    }
 
+    /**
+     * Service over an in-memory dataset instead of the classpath one (benchmarks and tests); a
+     * {@code resultCacheSize} of 0 disables the result cache so every query hits the index.
+     */
+    static CitySearchService of(MeterRegistry registry, List<City> cities, int resultCacheSize) {
+        final var service = new CitySearchService(registry, "", resultCacheSize);
+        service.cached = CityIndex.build(cities);
+        service.source = "memory";
+        return service;
+    }
+
+    /**
+     * Cities whose name or state contains the query, ignoring case and accents; prefix matches first,
+     * then bigger cities (by population, when the dataset has it), then shorter names.
+     */
     public List<String> searchSuggestions(String query, int limit) {
         if (query == null) return Collections.emptyList();
-        final var q = query.trim().toLowerCase(ROOT);
+        final var q = CityIndex.normalize(query.trim());
         if (q.isEmpty()) return Collections.emptyList();
 
-        final var all = loadAllCities();
-        if (all.isEmpty()) return Collections.emptyList();
+        final var index = loadIndex();
+        if (index.size() == 0) return Collections.emptyList();
+
+        return cached(index, new Query(q, limit, false), searchTimer, () -> {
+            final var top = new TopK(index, q, limit);
+            candidatesScanned.record(index.forEachMatch(q, top::offer));
+            final var suggestions = top.suggestions();
+            resultsReturned.record(suggestions.size());
+            return suggestions;
+        });
+    }
+
+    /**
+     * {@link #searchSuggestions} topped up with names that are a typo or two away from the query when
+     * there are fewer than {@code limit} exact matches. Queries shorter than four characters get no
+     * typo tolerance; see {@link FuzzyIndex} for the exact rules.
+     */
+    public List<String> searchFuzzy(String query, int limit) {
+        if (query == null) return Collections.emptyList();
+        final var q = CityIndex.normalize(query.trim());
+        if (q.isEmpty()) return Collections.emptyList();
+
+        final var index = loadIndex();
+        if (index.size() == 0) return Collections.emptyList();
+
+        return cached(index, new Query(q, limit, true), fuzzyTimer, () -> {
+            final var top = new TopK(index, q, limit);
+            index.forEachMatch(q, top::offer);
+            final var suggestions = new LinkedHashSet<>(top.suggestions());
+            if (suggestions.size() < limit) {
+                for (final var suggestion : index.fuzzySuggestions(q, limit)) {
+                    if (suggestions.size() == limit) break;
+                    suggestions.add(suggestion);
+                }
+            }
+            return List.copyOf(suggestions);
+        });
+    }
+
+    /**
+     * Version of the loaded dataset: a hash of the indexed cities that changes whenever a reload changes
+     * what any search could return. Loads the dataset if needed.
+     */
+    public String datasetVersion() {
+        return loadIndex().version();
+    }
+
+    /**
+     * The result of {@code query}, from the first tier that has it: the index's precomputed results of
+     * short queries, then the LRU of recent longer ones, else {@code search}. The LRU only admits a query
+     * on its second miss, so the long tail of one-off queries cannot push out the hot ones. Latency is
+     * recorded on {@code timer} either way.
+     */
+    private List<String> cached(CityIndex index, Query query, Timer timer, Supplier<List<String>> search) {
+        final var start = System.nanoTime();
+        if (query.q().length() <= ShortQueries.MAX_LENGTH) {
+            final var precomputed = index.shortQueries().get(query.q(), query.limit());
+            if (precomputed != null) {
+                precomputedHits.increment();
+                timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                return precomputed;
+            }
+        }
+        if (resultCacheSize > 0) {
+            final CachedResult hit;
+            synchronized (results) {
+                hit = results.get(query);
+            }
+            if (hit != null && hit.index() == index) {
+                resultCacheHits.increment();
+                timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                return hit.suggestions();
+            }
+            resultCacheMisses.increment();
+        }
+        final var suggestions = List.copyOf(search.get());
+        if (resultCacheSize > 0) {
+            synchronized (results) {
+                if (candidates.remove(query) != null) results.put(query, new CachedResult(index, suggestions));
+                else candidates.put(query, Boolean.TRUE);
+            }
+        }
+        timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        return suggestions;
+    }
+
+    private static double synchronizedSize(Map<?, ?> map) {
+        synchronized (map) {
+            return map.size();
+        }
+    }
+
+    private record Query(String q, int limit, boolean fuzzy) {
+    }
+
+    private record CachedResult(CityIndex index, List<String> suggestions) {
+    }
 
-        final var matched = all.stream()
-                .filter(c -> {
-                    String name = safeLower(c.name());
-                    String state = safeLower(c.state());
-                    return (name != null && name.contains(q)) || (state != null && state.contains(q));
-                })
-                .limit(Math.max(limit, 10) * 10L).sorted((a, b) -> {
-                    final var an = safeLower(a.name());
-                    final var bn = safeLower(b.name());
-                    final var as = startsWithScore(an, q) - startsWithScore(bn, q);
-                    if (as != 0) return -as; // higher score first
-                    final var al = an != null ? an.length() : MAX_VALUE;
-                    final var bl = bn != null ? bn.length() : MAX_VALUE;
-                    final var cmp = Integer.compare(al, bl);
-                    if (cmp != 0) return cmp;
-                    return compare(an, bn, String::compareTo);
-                }).toList();
+    /**
+     * The {@code k} cities closest to the coordinates, nearest first, ranked by great-circle distance.
+     */
+    public List<NearbyCity> nearest(double lat, double lon, int k) {
+        final var index = loadIndex();
+        final var start = System.nanoTime();
+        final var result = index.nearest(lat, lon, k);
+        nearestTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        return result;
+    }
 
-        return matched.stream()
-                .map(City::toSuggestionString)
-                .distinct()
-                .limit(limit)
-                .collect(Collectors.toList());
+    /**
+     * Loads and indexes the dataset now instead of on the first search.
+     */
+    public void warmUp() {
+        loadIndex();
     }
 
-    private static int startsWithScore(String s, String q) {
-        if (s == null) return 0;
-        return s.startsWith(q) ? 1 : 0;
+    public boolean isLoaded() {
+        return cached != null;
+    }
+
+    /**
+     * Number of indexed cities, 0 until the dataset is loaded.
+     */
+    public int size() {
+        final var index = cached;
+        return index == null ? 0 : index.size();
+    }
+
+    /**
+     * Where the current index was loaded from, such as {@code file:/data/cities.json} or {@code classpath:cities.bin}.
+     */
+    public String source() {
+        return source;
+    }
+
+    public CityReload lastReload() {
+        return lastReload;
+    }
+
+    /**
+     * Rebuilds the index from the configured dataset on the calling thread and publishes it with a
+     * single volatile write. Searches keep running against the previous index until then; they never
+     * wait for the rebuild and never see a partly built index.
+     *
+     * @throws IllegalStateException when the external dataset ({@code cities.path}) cannot be read;
+     *                               the current index is kept
+     */
+    public CityReload reload() {
+        lock.lock();
+        try {
+            final var memory = ManagementFactory.getMemoryMXBean();
+            final var heapBefore = memory.getHeapMemoryUsage().getUsed();
+            final var start = System.nanoTime();
+            final Dataset dataset;
+            try {
+                dataset = externalPath != null ? readExternal() : loadCities();
+            } catch (IOException | RuntimeException e) {
+                reloadTimer("failure").record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                throw new IllegalStateException("Cannot read city dataset " + externalPath + ": " + e.getMessage(), e);
+            }
+            final var index = CityIndex.build(dataset.cities());
+            final var nanos = System.nanoTime() - start;
+            // approximate: includes garbage from parsing or decoding; a mapped snapshot's raw columns are not counted
+            final var heapDelta = memory.getHeapMemoryUsage().getUsed() - heapBefore;
+            cached = index;
+            source = dataset.source();
+            // cached results of the old index can no longer hit; drop them so it can be collected
+            synchronized (results) {
+                results.clear();
+                candidates.clear();
+            }
+            reloadTimer("success").record(nanos, TimeUnit.NANOSECONDS);
+            lastReload = new CityReload(dataset.source(), index.size(), TimeUnit.NANOSECONDS.toMillis(nanos), heapDelta, Instant.now());
+            return lastReload;
+        } finally {
+            lock.unlock();
+        }
     }
 
-    private static String safeLower(String s) {
-        return s == null ? null : s.toLowerCase(ROOT);
+    private Timer reloadTimer(String outcome) {
+        return Timer.builder("cities.reload")
+                .description("Time to rebuild and swap the city index")
+                .tag("outcome", outcome)
+                .register(registry);
     }
 
-    private List<City> loadAllCities() {
+    private CityIndex loadIndex() {
         final var local = cached;
         if (local != null) return local;
         lock.lock();
         try {
             if (cached != null) return cached;
-            cached = tryLoadFromClasspath();
-            return cached;
+            final var sample = Timer.start(registry);
+            final var dataset = loadCities();
+            final var index = CityIndex.build(dataset.cities());
+            sample.stop(loadTimer);
+            source = dataset.source();
+            cached = index;
+            return index;
         } finally {
             lock.unlock();
         }
     }
 
+    private Dataset loadCities() {
+        if (externalPath != null) {
+            try {
+                return readExternal();
+            } catch (IOException | RuntimeException e) {
+                // unreadable external dataset: serve the bundled one; source() tells which is in use
+            }
+        }
+        final var snapshot = tryMapSnapshot();
+        if (snapshot != null) return new Dataset(snapshot, "classpath:" + CitySnapshot.CLASSPATH_NAME);
+        final var json = tryLoadFromClasspath();
+        return new Dataset(json, json.isEmpty() ? "none" : "classpath:" + CLASSPATH_JSON);
+    }
+
+    /**
+     * {@code cities.path}: a {@code .bin} snapshot is memory-mapped, anything else is parsed as JSON.
+     * Replace a mapped snapshot by moving a new file into place, never by rewriting it.
+     */
+    private Dataset readExternal() throws IOException {
+        final var name = "file:" + externalPath.toAbsolutePath();
+        if (externalPath.getFileName().toString().endsWith(".bin")) {
+            return new Dataset(CitySnapshot.map(externalPath), name);
+        }
+        try (final var is = Files.newInputStream(externalPath)) {
+            return new Dataset(mapper.readValue(is, new TypeReference<List<City>>() {
+            }), name);
+        }
+    }
+
+    private record Dataset(List<City> cities, String source) {
+    }
+
+    private CitySnapshot tryMapSnapshot() {
+        try {
+            final var resource = new ClassPathResource(CitySnapshot.CLASSPATH_NAME);
+            if (!resource.exists()) return null;
+            if (resource.isFile()) return CitySnapshot.map(resource.getFile().toPath());
+            // packaged inside the jar: unpack once so it is still mapped rather than read onto the heap;
+            // the jar cannot change, so reloads map the same copy again instead of piling up new ones
+            if (unpackedSnapshot == null || !Files.exists(unpackedSnapshot)) {
+                final var unpacked = Files.createTempFile("cities", ".bin");
+                unpacked.toFile().deleteOnExit();
+                try (final var is = resource.getInputStream()) {
+                    Files.copy(is, unpacked, REPLACE_EXISTING);
+                }
+                unpackedSnapshot = unpacked;
+            }
+            return CitySnapshot.map(unpackedSnapshot);
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
     private List<City> tryLoadFromClasspath() {
         try {
             final var resource = new ClassPathResource(CLASSPATH_JSON);
@@ -0,0 +1,174 @@
+package com.example.weatherapp.city;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.AbstractList;
+import java.util.List;
+import java.util.Objects;
+import java.util.RandomAccess;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Read-only, memory-mapped view of the columnar city file produced at build time from {@code cities.json}.
+ * <p>
+ * Layout (big-endian): a 16 byte header ({@code magic, version, count, poolSize}), then the primitive
+ * {@code double} latitude and longitude columns, the {@code long} population column, the string offsets
+ * ({@code count * 3 + 1} ints, relative to the pool), one null-flag byte per city and finally the UTF-8
+ * string pool. A city is only decoded onto the heap when it is read; missing coordinates are stored as
+ * NaN and a missing population as -1. Version 1 files, which have no population column, are still read.
+ * <p>
+ * This replaces parsing {@code cities.json}, not the index: {@link CityIndex#build} reads every row once
+ * and keeps its normalized name, state and suggestion on the heap, so only the raw columns stay mapped.
+ */
+public final class CitySnapshot extends AbstractList<City> implements RandomAccess {
+
+    static final String CLASSPATH_NAME = "cities.bin";
+
+    private static final int MAGIC = 0x43495459; // "CITY"
+    private static final int VERSION = 2;
+    private static final long NO_POPULATION = -1;
+    private static final int HEADER_BYTES = 16;
+    private static final int FIELDS = 3;
+    private static final int NAME = 0;
+    private static final int COUNTRY = 1;
+    private static final int STATE = 2;
+
+    private final MappedByteBuffer buffer;
+    private final int count;
+    private final int latBase;
+    private final int lonBase;
+    // -1 for a version 1 file
+    private final int populationBase;
+    private final int offsetBase;
+    private final int nullBase;
+    private final int poolBase;
+
+    private CitySnapshot(MappedByteBuffer buffer) throws IOException {
+        if (buffer.capacity() < HEADER_BYTES || buffer.getInt(0) != MAGIC) {
+            throw new IOException("Not a city snapshot");
+        }
+        final var version = buffer.getInt(4);
+        if (version != VERSION && version != 1) {
+            throw new IOException("Unsupported city snapshot version " + version);
+        }
+        this.buffer = buffer;
+        this.count = buffer.getInt(8);
+        this.latBase = HEADER_BYTES;
+        this.lonBase = latBase + Double.BYTES * count;
+        this.populationBase = version == 1 ? -1 : lonBase + Double.BYTES * count;
+        this.offsetBase = lonBase + Double.BYTES * count + (version == 1 ? 0 : Long.BYTES * count);
+        this.nullBase = offsetBase + Integer.BYTES * (count * FIELDS + 1);
+        this.poolBase = nullBase + count;
+        if ((long) poolBase + buffer.getInt(12) > buffer.capacity()) {
+            throw new IOException("Truncated city snapshot");
+        }
+    }
+
+    /**
+     * Maps a snapshot file; the mapping stays valid after the channel is closed.
+     */
+    static CitySnapshot map(Path file) throws IOException {
+        try (final var channel = FileChannel.open(file)) {
+            return new CitySnapshot(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    static void write(List<City> cities, Path file) throws IOException {
+        final var count = cities.size();
+        final var pool = new ByteArrayOutputStream();
+        final var offsets = new int[count * FIELDS + 1];
+        final var nulls = new byte[count];
+        for (int i = 0; i < count; i++) {
+            final var city = cities.get(i);
+            final String[] fields = {city.name(), city.country(), city.state()};
+            for (int f = 0; f < FIELDS; f++) {
+                offsets[i * FIELDS + f] = pool.size();
+                if (fields[f] == null) {
+                    nulls[i] |= (byte) (1 << f);
+                } else {
+                    pool.writeBytes(fields[f].getBytes(UTF_8));
+                }
+            }
+        }
+        offsets[count * FIELDS] = pool.size();
+
+        final var parent = file.toAbsolutePath().getParent();
+        if (parent != null) Files.createDirectories(parent);
+        try (final var out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(count);
+            out.writeInt(pool.size());
+            for (final var city : cities) out.writeDouble(city.lat() != null ? city.lat() : Double.NaN);
+            for (final var city : cities) out.writeDouble(city.lon() != null ? city.lon() : Double.NaN);
+            for (final var city : cities) out.writeLong(city.population() != null ? city.population() : NO_POPULATION);
+            for (final var offset : offsets) out.writeInt(offset);
+            out.write(nulls);
+            pool.writeTo(out);
+        }
+    }
+
+    @Override
+    public int size() {
+        return count;
+    }
+
+    @Override
+    public City get(int i) {
+        final var population = population(i);
+        return new City(string(i, NAME), string(i, COUNTRY), boxed(lat(i)), boxed(lon(i)), string(i, STATE),
+                population == NO_POPULATION ? null : population);
+    }
+
+    double lat(int i) {
+        return buffer.getDouble(latBase + Double.BYTES * checkIndex(i));
+    }
+
+    double lon(int i) {
+        return buffer.getDouble(lonBase + Double.BYTES * checkIndex(i));
+    }
+
+    long population(int i) {
+        checkIndex(i);
+        return populationBase < 0 ? NO_POPULATION : buffer.getLong(populationBase + Long.BYTES * i);
+    }
+
+    private String string(int i, int field) {
+        if ((buffer.get(nullBase + checkIndex(i)) & (1 << field)) != 0) return null;
+        final var slot = offsetBase + Integer.BYTES * (i * FIELDS + field);
+        final var start = buffer.getInt(slot);
+        final var bytes = new byte[buffer.getInt(slot + Integer.BYTES) - start];
+        buffer.get(poolBase + start, bytes);
+        return new String(bytes, UTF_8);
+    }
+
+    private int checkIndex(int i) {
+        return Objects.checkIndex(i, count);
+    }
+
+    private static Double boxed(double d) {
+        return Double.isNaN(d) ? null : d;
+    }
+
+    /**
+     * Build-time entry point: {@code CitySnapshot <cities.json> <cities.bin>}.
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            throw new IllegalArgumentException("Usage: CitySnapshot <cities.json> <cities.bin>");
+        }
+        final List<City> cities = new ObjectMapper().readValue(Path.of(args[0]).toFile(), new TypeReference<>() {
+        });
+        write(cities, Path.of(args[1]));
+    }
+}
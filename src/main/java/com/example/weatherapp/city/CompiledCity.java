@@ -0,0 +1,42 @@
+package com.example.weatherapp.city;
+
+import static java.lang.Integer.MAX_VALUE;
+
+/**
+ * Load-time form of a {@link City}: everything the search hot path reads, computed exactly once.
+ * It does not hold on to the {@link City} itself, which a {@link CitySnapshot} decodes again on demand, but
+ * its strings are heap copies of the snapshot's.
+ *
+ * @param source     position of the city in the loaded dataset
+ * @param name       {@linkplain CityIndex#normalize normalized} name, empty when the city has none
+ * @param state      normalized state, empty when the city has none
+ * @param nameLength length used for ranking; cities without a name sort last
+ * @param score      static rank score, see {@link #score(Long)}
+ * @param suggestion the pre-rendered {@link City#toSuggestionString()}
+ */
+record CompiledCity(int source, String name, String state, int nameLength, int score, String suggestion) {
+
+    static CompiledCity of(int source, City city) {
+        final var name = CityIndex.normalize(city.name());
+        return new CompiledCity(
+                source,
+                name,
+                CityIndex.normalize(city.state()),
+                city.name() != null ? name.length() : MAX_VALUE,
+                score(city.population()),
+                city.toSuggestionString());
+    }
+
+    /**
+     * Order of magnitude of the population, 0 when unknown: Paris, FR (2.1 million) scores 7, Paris, TX
+     * (25 thousand) 5. Coarse on purpose, so that among cities of similar size the shorter name still wins.
+     */
+    static int score(Long population) {
+        if (population == null || population < 1) return 0;
+        return 1 + (int) Math.log10(population);
+    }
+
+    boolean contains(String q) {
+        return name.contains(q) || state.contains(q);
+    }
+}
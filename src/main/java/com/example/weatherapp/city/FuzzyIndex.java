@@ -0,0 +1,219 @@
+package com.example.weatherapp.city;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+
+/**
+ * Symmetric-delete index for typo-tolerant matching of city names.
+ * <p>
+ * Only the first {@link #PREFIX} characters of a normalized name take part, and cities sharing that
+ * prefix form one key, ranked once at build time. Every key and every variant of it with one character
+ * deleted is hashed; a query looks up its own prefix and its variants with up to {@link #maxDistance two}
+ * deletions, and verifies each candidate key once with a bounded edit distance. Two strings within edit
+ * distance k share a variant as long as neither side needs more deletions than it generated, so a name
+ * missing two of the query's letters is not found; one deletion on the index side keeps the index at
+ * {@code PREFIX + 1} entries per key.
+ * <p>
+ * Postings are a single sorted {@code long[]}: a 40-bit variant hash above a 24-bit key id. A hash
+ * collision only adds a candidate that verification then rejects.
+ */
+final class FuzzyIndex {
+
+    static final int PREFIX = 7;
+
+    private static final int ID_BITS = 24;
+    private static final long ID_MASK = (1L << ID_BITS) - 1;
+    private static final int NONE = -1;
+
+    private final String[] keys;
+    // cities of key k are ranks[offsets[k]..offsets[k + 1]), ascending; byRank[rank] is the city id
+    private final int[] offsets;
+    private final int[] ranks;
+    private final int[] byRank;
+    private final long[] postings;
+
+    private FuzzyIndex(String[] keys, int[] offsets, int[] ranks, int[] byRank, long[] postings) {
+        this.keys = keys;
+        this.offsets = offsets;
+        this.ranks = ranks;
+        this.byRank = byRank;
+        this.postings = postings;
+    }
+
+    /**
+     * Only the best-ranked entry of each {@linkplain CityIndex#duplicateGroup duplicate group} is indexed:
+     * matching looks at the name alone, which the whole group shares, so the others could never outrank it.
+     *
+     * @param byRank         all ids in static rank order (see {@link CityIndex#rank})
+     * @param duplicateGroup the duplicate group of every id
+     */
+    static FuzzyIndex build(CompiledCity[] entries, int[] byRank, int[] duplicateGroup) {
+        final var groups = new LinkedHashMap<String, List<Integer>>();
+        for (int rank = 0; rank < byRank.length; rank++) {
+            final var id = byRank[rank];
+            final var name = entries[id].name();
+            if (duplicateGroup[id] >= 0 && duplicateGroup[id] != id) continue;
+            if (!name.isEmpty()) groups.computeIfAbsent(key(name), k -> new ArrayList<>()).add(rank);
+        }
+        final var keys = groups.keySet().toArray(String[]::new);
+        final var offsets = new int[keys.length + 1];
+        final var ranks = new int[byRank.length];
+        var size = 0;
+        for (int k = 0; k < keys.length; k++) {
+            offsets[k] = size;
+            for (final var rank : groups.get(keys[k])) ranks[size++] = rank;
+        }
+        offsets[keys.length] = size;
+        if (keys.length > ID_MASK + 1) {
+            return new FuzzyIndex(new String[0], new int[]{0}, new int[0], byRank, new long[0]);
+        }
+
+        final var postings = new long[keys.length * (PREFIX + 1)];
+        var n = 0;
+        for (int k = 0; k < keys.length; k++) {
+            final var key = keys[k];
+            postings[n++] = posting(hash(key, NONE, NONE), k);
+            for (int i = 0; i < key.length(); i++) {
+                postings[n++] = posting(hash(key, i, NONE), k);
+            }
+        }
+        Arrays.sort(postings, 0, n);
+        // a repeated letter yields the same variant twice
+        var unique = 0;
+        for (int i = 0; i < n; i++) {
+            if (unique == 0 || postings[unique - 1] != postings[i]) postings[unique++] = postings[i];
+        }
+        return new FuzzyIndex(keys, offsets, Arrays.copyOf(ranks, size), byRank, Arrays.copyOf(postings, unique));
+    }
+
+    /**
+     * Typos tolerated for a query of this length: none below 4 characters, one below 6, else two.
+     */
+    static int maxDistance(int queryLength) {
+        return queryLength < 4 ? 0 : queryLength < 6 ? 1 : 2;
+    }
+
+    /**
+     * Up to {@code limit} ids of cities whose name prefix is within {@link #maxDistance} of the query
+     * prefix: closest first, then in static rank order.
+     *
+     * @param q an already normalized query
+     */
+    int[] matches(String q, int limit) {
+        final var max = maxDistance(q.length());
+        if (max == 0 || postings.length == 0 || limit <= 0) return new int[0];
+        final var key = key(q);
+
+        final var hashes = new long[1 + key.length() + (max > 1 ? key.length() * (key.length() - 1) / 2 : 0)];
+        var h = 0;
+        hashes[h++] = hash(key, NONE, NONE);
+        for (int i = 0; i < key.length(); i++) {
+            hashes[h++] = hash(key, i, NONE);
+            if (max < 2) continue;
+            for (int j = i + 1; j < key.length(); j++) hashes[h++] = hash(key, i, j);
+        }
+        var candidates = new int[16];
+        var n = 0;
+        for (final var hash : hashes) {
+            for (int p = lowerBound(hash << ID_BITS); p < postings.length && postings[p] >>> ID_BITS == hash; p++) {
+                if (n == candidates.length) candidates = Arrays.copyOf(candidates, n * 2);
+                candidates[n++] = (int) (postings[p] & ID_MASK);
+            }
+        }
+        Arrays.sort(candidates, 0, n);
+
+        // ranks of verified keys bucketed by distance; only each key's best `limit` cities can make it
+        final var byDistance = new int[max + 1][];
+        final var bucketSizes = new int[max + 1];
+        final var rows = new int[3][PREFIX + 1];
+        for (int i = 0; i < n; i++) {
+            final var k = candidates[i];
+            if (i > 0 && candidates[i - 1] == k) continue;
+            final var distance = distance(key, key.length(), keys[k], keys[k].length(), max, rows);
+            if (distance > max) continue;
+            final var from = offsets[k];
+            final var to = Math.min(offsets[k + 1], from + limit);
+            var bucket = byDistance[distance];
+            if (bucket == null) bucket = new int[Math.max(16, to - from)];
+            if (bucketSizes[distance] + to - from > bucket.length) {
+                bucket = Arrays.copyOf(bucket, Math.max(bucket.length * 2, bucketSizes[distance] + to - from));
+            }
+            System.arraycopy(ranks, from, bucket, bucketSizes[distance], to - from);
+            bucketSizes[distance] += to - from;
+            byDistance[distance] = bucket;
+        }
+
+        final var result = new int[limit];
+        var size = 0;
+        for (int d = 0; d <= max && size < limit; d++) {
+            if (bucketSizes[d] == 0) continue;
+            Arrays.sort(byDistance[d], 0, bucketSizes[d]);
+            for (int i = 0; i < bucketSizes[d] && size < limit; i++) result[size++] = byRank[byDistance[d][i]];
+        }
+        return Arrays.copyOf(result, size);
+    }
+
+    /**
+     * Optimal string alignment distance (Levenshtein plus adjacent transpositions) between the first
+     * {@code aLength} chars of {@code a} and {@code bLength} chars of {@code b}, or {@code max + 1} once
+     * it is known to exceed {@code max}.
+     */
+    static int distance(String a, int aLength, String b, int bLength, int max, int[][] rows) {
+        if (Math.abs(aLength - bLength) > max) return max + 1;
+        var previous2 = rows[0];
+        var previous = rows[1];
+        var current = rows[2];
+        for (int j = 0; j <= bLength; j++) previous[j] = j;
+        for (int i = 1; i <= aLength; i++) {
+            current[0] = i;
+            var rowMin = i;
+            for (int j = 1; j <= bLength; j++) {
+                final var cost = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+                var d = Math.min(Math.min(previous[j] + 1, current[j - 1] + 1), previous[j - 1] + cost);
+                if (i > 1 && j > 1 && a.charAt(i - 1) == b.charAt(j - 2) && a.charAt(i - 2) == b.charAt(j - 1)) {
+                    d = Math.min(d, previous2[j - 2] + 1);
+                }
+                current[j] = d;
+                rowMin = Math.min(rowMin, d);
+            }
+            if (rowMin > max) return max + 1;
+            final var recycled = previous2;
+            previous2 = previous;
+            previous = current;
+            current = recycled;
+        }
+        return previous[bLength];
+    }
+
+    private int lowerBound(long key) {
+        var lo = 0;
+        var hi = postings.length;
+        while (lo < hi) {
+            final var mid = (lo + hi) >>> 1;
+            if (postings[mid] < key) lo = mid + 1;
+            else hi = mid;
+        }
+        return lo;
+    }
+
+    private static String key(String name) {
+        return name.length() <= PREFIX ? name : name.substring(0, PREFIX);
+    }
+
+    private static long posting(long hash, int keyId) {
+        return hash << ID_BITS | keyId;
+    }
+
+    // 40-bit FNV-1a over the key, skipping positions `skip1` and `skip2`
+    private static long hash(String key, int skip1, int skip2) {
+        var h = 0xcbf29ce484222325L;
+        for (int i = 0; i < key.length(); i++) {
+            if (i == skip1 || i == skip2) continue;
+            h ^= key.charAt(i);
+            h *= 0x100000001b3L;
+        }
+        return h >>> (Long.SIZE - 40);
+    }
+}
@@ -0,0 +1,11 @@
+package com.example.weatherapp.city;
+
+import com.fasterxml.jackson.annotation.JsonUnwrapped;
+
+/**
+ * A city near a queried point, serialized as the city's fields plus {@code distanceKm}.
+ *
+ * @param distanceKm great-circle (haversine) distance from the queried point
+ */
+public record NearbyCity(@JsonUnwrapped City city, double distanceKm) {
+}
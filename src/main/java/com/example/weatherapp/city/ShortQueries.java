@@ -0,0 +1,159 @@
+package com.example.weatherapp.city;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Precomputed results of every query of up to {@link #MAX_LENGTH} characters.
+ * <p>
+ * Short queries are the bulk of autocomplete traffic and the most expensive ones, since they match the
+ * most cities and are below the trigram length the index can look up. At build time every distinct
+ * substring of up to three characters of a normalized name or state gets its best {@link #MAX_LIMIT}
+ * matches, ranked exactly as {@link TopK} ranks them; any smaller limit is a prefix of that list. A
+ * short query is then one map lookup, and one that is not in the map matches nothing.
+ * <p>
+ * Apart from the prefix match, the ranking does not depend on the query, so the cities are sorted once
+ * and visited best first: each substring keeps the first {@link #MAX_LIMIT} prefix matches and the first
+ * {@link #MAX_LIMIT} other matches it sees, with no comparisons at all. Of the entries rendering the
+ * same suggestion, only the first one seen is kept, as {@link TopK} keeps only the best.
+ */
+final class ShortQueries {
+
+    static final int MAX_LENGTH = 3;
+    // the largest limit the search API accepts
+    static final int MAX_LIMIT = 50;
+
+    private final Map<String, List<String>> results;
+
+    private ShortQueries(Map<String, List<String>> results) {
+        this.results = results;
+    }
+
+    /**
+     * @param byRank         all ids in static rank order (see {@link CityIndex#rank})
+     * @param duplicateGroup the {@linkplain CityIndex#duplicateGroup duplicate group} of every id
+     */
+    static ShortQueries build(CompiledCity[] entries, int[] byRank, int[] duplicateGroup) {
+        final var slots = new Slots();
+        for (final var id : byRank) {
+            addSubstrings(slots, entries[id], entries[id].name(), id, duplicateGroup[id]);
+            addSubstrings(slots, entries[id], entries[id].state(), id, duplicateGroup[id]);
+        }
+        final var results = new HashMap<String, List<String>>(slots.size * 4 / 3 + 1);
+        for (final var slot : slots.values) {
+            if (slot != null) results.put(slot.q, slot.suggestions(entries));
+        }
+        return new ShortQueries(results);
+    }
+
+    /**
+     * @param q an already normalized query of 1 to {@link #MAX_LENGTH} characters
+     * @return the best {@code limit} suggestions, or {@code null} when {@code limit} exceeds {@link #MAX_LIMIT}
+     */
+    List<String> get(String q, int limit) {
+        if (limit > MAX_LIMIT) return null;
+        final var suggestions = results.getOrDefault(q, List.of());
+        return suggestions.size() <= limit ? suggestions : suggestions.subList(0, limit);
+    }
+
+    int size() {
+        return results.size();
+    }
+
+    private static void addSubstrings(Slots slots, CompiledCity entry, String s, int id, int group) {
+        for (int i = 0; i < s.length(); i++) {
+            // the substrings starting at i, packed as length and up to three chars
+            var key = 0L;
+            for (int length = 1; length <= MAX_LENGTH && i + length <= s.length(); length++) {
+                key = key << 16 | s.charAt(i + length - 1);
+                slots.get((long) length << 48 | key, s, i, length).offer(entry, id, group);
+            }
+        }
+    }
+
+    /**
+     * Open-addressing map from packed substring to its {@link Slot}, so that the substrings of every
+     * name are looked up without allocating them.
+     */
+    private static final class Slots {
+        private long[] keys = new long[1024];
+        private Slot[] values = new Slot[1024];
+        private int size;
+
+        Slot get(long key, String s, int from, int length) {
+            var i = probe(keys, values, key);
+            if (values[i] != null) return values[i];
+            if (2 * (size + 1) > keys.length) {
+                grow();
+                i = probe(keys, values, key);
+            }
+            keys[i] = key;
+            values[i] = new Slot(s.substring(from, from + length));
+            size++;
+            return values[i];
+        }
+
+        // index of key, or of the free slot where it belongs
+        private static int probe(long[] keys, Slot[] values, long key) {
+            final var mask = keys.length - 1;
+            var i = (int) (key * 0x9E3779B97F4A7C15L >>> 40) & mask;
+            while (values[i] != null && keys[i] != key) i = (i + 1) & mask;
+            return i;
+        }
+
+        private void grow() {
+            final var oldKeys = keys;
+            final var oldValues = values;
+            keys = new long[oldKeys.length * 2];
+            values = new Slot[oldKeys.length * 2];
+            for (int j = 0; j < oldKeys.length; j++) {
+                if (oldValues[j] == null) continue;
+                final var i = probe(keys, values, oldKeys[j]);
+                keys[i] = oldKeys[j];
+                values[i] = oldValues[j];
+            }
+        }
+    }
+
+    /**
+     * Best matches of one query, filled in ranking order; a city containing the query several times is
+     * offered once, and a duplicate group is kept once.
+     */
+    private static final class Slot {
+        private final String q;
+        private final int[] prefix = new int[MAX_LIMIT];
+        private final int[] other = new int[MAX_LIMIT];
+        private int prefixSize;
+        private int otherSize;
+        private int lastId = -1;
+        // duplicate groups already kept; duplicates are rare, so made lazily
+        private Set<Integer> groups;
+
+        Slot(String q) {
+            this.q = q;
+        }
+
+        void offer(CompiledCity entry, int id, int group) {
+            if (id == lastId || prefixSize == MAX_LIMIT) return;
+            lastId = id;
+            if (group >= 0) {
+                if (groups == null) groups = new HashSet<>();
+                if (!groups.add(group)) return;
+            }
+            if (entry.name().startsWith(q)) prefix[prefixSize++] = id;
+            else if (otherSize < MAX_LIMIT) other[otherSize++] = id;
+        }
+
+        List<String> suggestions(CompiledCity[] entries) {
+            final var ids = Arrays.copyOf(prefix, Math.min(MAX_LIMIT, prefixSize + otherSize));
+            System.arraycopy(other, 0, ids, prefixSize, ids.length - prefixSize);
+            final var suggestions = new String[ids.length];
+            for (int i = 0; i < ids.length; i++) suggestions[i] = entries[ids[i]].suggestion();
+            return List.of(suggestions);
+        }
+    }
+}
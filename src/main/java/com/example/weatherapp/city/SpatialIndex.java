@@ -0,0 +1,225 @@
+package com.example.weatherapp.city;
+
+/**
+ * Static KD-tree over city coordinates for nearest-neighbour lookups.
+ * <p>
+ * Every point is stored as a 3D unit vector, so distances are not distorted near the poles or the
+ * antimeridian: the straight-line (chord) distance between unit vectors grows monotonically with the
+ * great-circle distance, so ranking by chord is exactly ranking by haversine distance. The tree is
+ * implicit: the arrays are permuted so that every range {@code [lo, hi)} has its median on the split
+ * axis at {@code (lo + hi) >>> 1}. A query allocates only k-sized heap and result arrays.
+ */
+final class SpatialIndex {
+
+    static final double EARTH_RADIUS_KM = 6371.0088;
+
+    private final int[] ids;
+    private final double[] xyz;
+    private final double[] lat;
+    private final double[] lon;
+
+    private SpatialIndex(int[] ids, double[] xyz, double[] lat, double[] lon) {
+        this.ids = ids;
+        this.xyz = xyz;
+        this.lat = lat;
+        this.lon = lon;
+    }
+
+    /**
+     * @param lat latitude per id in degrees, {@code NaN} when unknown (such ids are left out)
+     * @param lon longitude per id in degrees, {@code NaN} when unknown
+     */
+    static SpatialIndex build(double[] lat, double[] lon) {
+        var n = 0;
+        for (int id = 0; id < lat.length; id++) {
+            if (!Double.isNaN(lat[id]) && !Double.isNaN(lon[id])) n++;
+        }
+        final var index = new SpatialIndex(new int[n], new double[3 * n], new double[n], new double[n]);
+        var i = 0;
+        for (int id = 0; id < lat.length; id++) {
+            if (Double.isNaN(lat[id]) || Double.isNaN(lon[id])) continue;
+            index.ids[i] = id;
+            index.lat[i] = lat[id];
+            index.lon[i] = lon[id];
+            toUnitVector(lat[id], lon[id], index.xyz, 3 * i);
+            i++;
+        }
+        index.split(0, n, 0);
+        return index;
+    }
+
+    int size() {
+        return ids.length;
+    }
+
+    /**
+     * The up to {@code k} ids closest to the coordinates, nearest first, with their distances.
+     */
+    Nearest nearest(double latitude, double longitude, int k) {
+        final var search = new Search(Math.max(0, Math.min(k, ids.length)));
+        final var phi = Math.toRadians(latitude);
+        final var lambda = Math.toRadians(longitude);
+        search.qx = Math.cos(phi) * Math.cos(lambda);
+        search.qy = Math.cos(phi) * Math.sin(lambda);
+        search.qz = Math.sin(phi);
+        if (search.capacity > 0) descend(search, 0, ids.length, 0);
+
+        // heap sort in place: the max-heap yields the farthest first, filled from the back
+        final var found = new int[search.size];
+        final var km = new double[search.size];
+        for (int i = search.size - 1; i >= 0; i--) {
+            final var node = search.nodes[0];
+            found[i] = ids[node];
+            km[i] = haversineKm(latitude, longitude, lat[node], lon[node]);
+            search.removeTop();
+        }
+        return new Nearest(found, km);
+    }
+
+    /**
+     * Ids ordered by distance, with the haversine distance of each in kilometres.
+     */
+    record Nearest(int[] ids, double[] distancesKm) {
+    }
+
+    static double haversineKm(double lat1, double lon1, double lat2, double lon2) {
+        final var dLat = Math.toRadians(lat2 - lat1);
+        final var dLon = Math.toRadians(lon2 - lon1);
+        final var a = Math.pow(Math.sin(dLat / 2), 2)
+                + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2)) * Math.pow(Math.sin(dLon / 2), 2);
+        return 2 * EARTH_RADIUS_KM * Math.asin(Math.min(1, Math.sqrt(a)));
+    }
+
+    private void descend(Search search, int lo, int hi, int axis) {
+        if (lo >= hi) return;
+        final var mid = (lo + hi) >>> 1;
+        final var dx = search.qx - xyz[3 * mid];
+        final var dy = search.qy - xyz[3 * mid + 1];
+        final var dz = search.qz - xyz[3 * mid + 2];
+        search.offer(mid, dx * dx + dy * dy + dz * dz);
+
+        final var diff = axis == 0 ? dx : axis == 1 ? dy : dz;
+        final var next = axis == 2 ? 0 : axis + 1;
+        if (diff < 0) {
+            descend(search, lo, mid, next);
+            if (search.reaches(diff * diff)) descend(search, mid + 1, hi, next);
+        } else {
+            descend(search, mid + 1, hi, next);
+            if (search.reaches(diff * diff)) descend(search, lo, mid, next);
+        }
+    }
+
+    private void split(int lo, int hi, int axis) {
+        if (hi - lo <= 1) return;
+        final var mid = (lo + hi) >>> 1;
+        select(lo, hi - 1, mid, axis);
+        final var next = axis == 2 ? 0 : axis + 1;
+        split(lo, mid, next);
+        split(mid + 1, hi, next);
+    }
+
+    // Hoare selection: afterwards [lo, k) <= k <= (k, hi] on the axis
+    private void select(int lo, int hi, int k, int axis) {
+        while (lo < hi) {
+            final var pivot = xyz[3 * k + axis];
+            var i = lo;
+            var j = hi;
+            while (i <= j) {
+                while (xyz[3 * i + axis] < pivot) i++;
+                while (xyz[3 * j + axis] > pivot) j--;
+                if (i <= j) swap(i++, j--);
+            }
+            if (k <= j) hi = j;
+            else if (k >= i) lo = i;
+            else return;
+        }
+    }
+
+    private void swap(int a, int b) {
+        final var id = ids[a];
+        ids[a] = ids[b];
+        ids[b] = id;
+        for (int c = 0; c < 3; c++) {
+            final var v = xyz[3 * a + c];
+            xyz[3 * a + c] = xyz[3 * b + c];
+            xyz[3 * b + c] = v;
+        }
+        final var la = lat[a];
+        lat[a] = lat[b];
+        lat[b] = la;
+        final var lo = lon[a];
+        lon[a] = lon[b];
+        lon[b] = lo;
+    }
+
+    private static void toUnitVector(double latitude, double longitude, double[] out, int offset) {
+        // keep in sync with the query vector in nearest()
+        final var phi = Math.toRadians(latitude);
+        final var lambda = Math.toRadians(longitude);
+        final var cosPhi = Math.cos(phi);
+        out[offset] = cosPhi * Math.cos(lambda);
+        out[offset + 1] = cosPhi * Math.sin(lambda);
+        out[offset + 2] = Math.sin(phi);
+    }
+
+    /**
+     * Bounded max-heap of the best nodes so far, keyed on squared chord distance.
+     */
+    private static final class Search {
+        final int capacity;
+        final int[] nodes;
+        final double[] distances;
+        int size;
+        double qx;
+        double qy;
+        double qz;
+
+        Search(int capacity) {
+            this.capacity = capacity;
+            this.nodes = new int[capacity];
+            this.distances = new double[capacity];
+        }
+
+        // whether a subtree at this squared distance from the split plane may still improve the result
+        boolean reaches(double planeDistance) {
+            return size < capacity || planeDistance < distances[0];
+        }
+
+        void offer(int node, double distance) {
+            if (size < capacity) {
+                var i = size++;
+                while (i > 0) {
+                    final var parent = (i - 1) >>> 1;
+                    if (distances[parent] >= distance) break;
+                    nodes[i] = nodes[parent];
+                    distances[i] = distances[parent];
+                    i = parent;
+                }
+                nodes[i] = node;
+                distances[i] = distance;
+            } else if (distance < distances[0]) {
+                siftDown(node, distance, size);
+            }
+        }
+
+        void removeTop() {
+            size--;
+            if (size > 0) siftDown(nodes[size], distances[size], size);
+        }
+
+        private void siftDown(int node, double distance, int n) {
+            var i = 0;
+            while (true) {
+                var child = 2 * i + 1;
+                if (child >= n) break;
+                if (child + 1 < n && distances[child + 1] > distances[child]) child++;
+                if (distances[child] <= distance) break;
+                nodes[i] = nodes[child];
+                distances[i] = distances[child];
+                i = child;
+            }
+            nodes[i] = node;
+            distances[i] = distance;
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package com.example.weatherapp.city;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Bounded selection of the best {@code k} matches of one query, in O(n log k) over all matches.
+ * <p>
+ * The buffer is a max-heap on the ranking, so its root is always the worst kept match and a new
+ * candidate either loses to the root straight away or replaces it. Entries rendering the same suggestion
+ * (see {@link CityIndex#duplicateGroup}) hold at most one slot, taken by the best of them, so the result
+ * has {@code k} distinct suggestions whenever there are that many.
+ */
+final class TopK {
+
+    private final CityIndex index;
+    private final String q;
+    private final int[] heap;
+    private int size;
+    // heap slot of each duplicate group that has a member in the heap; duplicates are rare, so made lazily
+    private Map<Integer, Integer> groupSlots;
+
+    TopK(CityIndex index, String q, int k) {
+        this.index = index;
+        this.q = q;
+        this.heap = new int[Math.max(k, 0)];
+    }
+
+    /**
+     * Offers a matching city id; always returns {@code true} so it can drive
+     * {@link CityIndex#forEachMatch} to the end.
+     */
+    boolean offer(int id) {
+        final var group = index.duplicateGroup(id);
+        final var slot = group < 0 || groupSlots == null ? null : groupSlots.get(group);
+        if (slot != null) {
+            if (compare(id, heap[slot]) < 0) {
+                set(slot, id);
+                siftDown(slot);
+            }
+        } else if (size < heap.length) {
+            set(size, id);
+            siftUp(size++);
+        } else if (size > 0 && compare(id, heap[0]) < 0) {
+            final var evicted = index.duplicateGroup(heap[0]);
+            if (evicted >= 0) groupSlots.remove(evicted);
+            set(0, id);
+            siftDown(0);
+        }
+        return true;
+    }
+
+    /**
+     * Suggestion strings of the kept matches, best first.
+     */
+    List<String> suggestions() {
+        final var ids = new int[size];
+        for (int i = size - 1; i >= 0; i--) {
+            ids[i] = heap[0];
+            heap[0] = heap[--size];
+            siftDown(0);
+        }
+        final var result = new ArrayList<String>(ids.length);
+        for (final var id : ids) {
+            result.add(index.entry(id).suggestion());
+        }
+        return result;
+    }
+
+    /**
+     * Search ranking: prefix matches first, then the static rank (bigger cities, then shorter names, then
+     * alphabetical, then file order), which is precomputed so ties cost one int comparison.
+     */
+    private int compare(int a, int b) {
+        final var pa = index.entry(a).name().startsWith(q);
+        if (pa != index.entry(b).name().startsWith(q)) return pa ? -1 : 1;
+        return Integer.compare(index.rank(a), index.rank(b));
+    }
+
+    private void siftUp(int i) {
+        final var id = heap[i];
+        while (i > 0) {
+            final var parent = (i - 1) >>> 1;
+            if (compare(id, heap[parent]) <= 0) break;
+            set(i, heap[parent]);
+            i = parent;
+        }
+        set(i, id);
+    }
+
+    private void siftDown(int i) {
+        if (size == 0) return;
+        final var id = heap[i];
+        final var half = size >>> 1;
+        while (i < half) {
+            var child = 2 * i + 1;
+            final var right = child + 1;
+            if (right < size && compare(heap[right], heap[child]) > 0) child = right;
+            if (compare(id, heap[child]) >= 0) break;
+            set(i, heap[child]);
+            i = child;
+        }
+        set(i, id);
+    }
+
+    private void set(int i, int id) {
+        heap[i] = id;
+        final var group = index.duplicateGroup(id);
+        if (group < 0) return;
+        if (groupSlots == null) groupSlots = new HashMap<>();
+        groupSlots.put(group, i);
+    }
+}
@@ -0,0 +1,170 @@
+package com.example.weatherapp.weather;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestClient;
+
+import java.net.http.HttpClient;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Server-side Open-Meteo client. Forecasts are cached per grid cell until the next model update
+ * boundary, and concurrent requests for the same cell share a single upstream call.
+ * <p>
+ * Upstream calls are bounded by {@code weather.open-meteo.connect-timeout} and
+ * {@code weather.open-meteo.read-timeout}. Requests waiting for another request's call give up after the
+ * sum of both, and an in-flight call older than that no longer serves new requests, so a hung upstream
+ * call cannot hold up its grid cell.
+ */
+@Service
+public class ForecastService {
+
+    static final String HOURLY = "temperature_2m,precipitation,wind_speed_10m,relative_humidity_2m";
+
+    private final RestClient client;
+    private final double gridDegrees;
+    private final long ttlSeconds;
+    private final int forecastDays;
+    private final int maxEntries;
+    private final Duration fetchTimeout;
+    private final Clock clock;
+
+    private final ConcurrentHashMap<GridCell, Entry> cache = new ConcurrentHashMap<>();
+
+    public ForecastService(RestClient.Builder builder,
+                           @Value("${weather.open-meteo.base-url:https://api.open-meteo.com}") String baseUrl,
+                           @Value("${weather.forecast.grid-degrees:0.1}") double gridDegrees,
+                           @Value("${weather.forecast.ttl:PT1H}") Duration ttl,
+                           @Value("${weather.forecast.days:3}") int forecastDays,
+                           @Value("${weather.forecast.max-entries:10000}") int maxEntries,
+                           @Value("${weather.open-meteo.connect-timeout:PT2S}") Duration connectTimeout,
+                           @Value("${weather.open-meteo.read-timeout:PT5S}") Duration readTimeout) {
+        final var requestFactory = new JdkClientHttpRequestFactory(HttpClient.newBuilder()
+                .connectTimeout(connectTimeout)
+                .build());
+        requestFactory.setReadTimeout(readTimeout);
+        this.client = builder.baseUrl(baseUrl).requestFactory(requestFactory).build();
+        this.gridDegrees = gridDegrees > 0 ? gridDegrees : 0.1;
+        this.ttlSeconds = Math.max(1L, ttl.toSeconds());
+        this.forecastDays = forecastDays;
+        this.maxEntries = Math.max(1, maxEntries);
+        this.fetchTimeout = connectTimeout.plus(readTimeout);
+        this.clock = Clock.systemUTC();
+    }
+
+    /**
+     * Returns the forecast for the grid cell containing the coordinates, fetching it at most once per refresh window.
+     *
+     * @throws org.springframework.web.client.RestClientException when the upstream call fails or does not
+     *                                                              answer in time
+     */
+    public WeatherReport forecast(double lat, double lon) {
+        final var cell = GridCell.of(lat, lon, gridDegrees);
+        final var now = clock.instant();
+        final var created = new Entry[1];
+        final var entry = cache.compute(cell, (k, existing) -> existing != null && existing.isUsable(now)
+                ? existing
+                : (created[0] = new Entry(new CompletableFuture<>(), now.plus(fetchTimeout), nextRefresh(now))));
+
+        if (entry == created[0]) {
+            evictExpired(now);
+            try {
+                entry.report().complete(fetch(cell));
+            } catch (RuntimeException e) {
+                // do not cache failures: the next request retries upstream
+                cache.remove(cell, entry);
+                entry.report().completeExceptionally(e);
+            }
+        }
+        try {
+            return entry.report().get(fetchTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            throw new ResourceAccessException("Open-Meteo did not answer within " + fetchTimeout.toMillis() + " ms");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ResourceAccessException("Interrupted while waiting for Open-Meteo");
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof RuntimeException re ? re : new ResourceAccessException(String.valueOf(e.getCause()));
+        }
+    }
+
+    private WeatherReport fetch(GridCell cell) {
+        return client.get()
+                .uri(uri -> uri.path("/v1/forecast")
+                        .queryParam("latitude", cell.lat())
+                        .queryParam("longitude", cell.lon())
+                        .queryParam("hourly", HOURLY)
+                        .queryParam("forecast_days", forecastDays)
+                        .queryParam("timezone", "auto")
+                        .build())
+                .retrieve()
+                .body(WeatherReport.class);
+    }
+
+    /**
+     * Open-Meteo refreshes its models on fixed boundaries, so every cell expires on the next multiple
+     * of the TTL rather than TTL after its own fetch.
+     */
+    private Instant nextRefresh(Instant now) {
+        return Instant.ofEpochSecond((now.getEpochSecond() / ttlSeconds + 1) * ttlSeconds);
+    }
+
+    /**
+     * Keeps the cache at {@code weather.forecast.max-entries}: once over it, unusable entries go first, then
+     * the oldest fresh ones, down to 90% of the cap so that a full cache is not sorted on every miss.
+     */
+    private void evictExpired(Instant now) {
+        if (cache.size() <= maxEntries) return;
+        cache.values().removeIf(e -> !e.isUsable(now));
+        final var excess = cache.size() - (maxEntries - maxEntries / 10);
+        if (excess <= 0) return;
+        cache.entrySet().stream()
+                .sorted(Comparator.comparing((Map.Entry<GridCell, Entry> e) -> e.getValue().abandonAt()))
+                .limit(excess)
+                .toList()
+                .forEach(e -> cache.remove(e.getKey(), e.getValue()));
+    }
+
+    int size() {
+        return cache.size();
+    }
+
+    record GridCell(long latIndex, long lonIndex, double degrees) {
+
+        static GridCell of(double lat, double lon, double degrees) {
+            return new GridCell(Math.round(lat / degrees), Math.round(lon / degrees), degrees);
+        }
+
+        double lat() {
+            return center(latIndex);
+        }
+
+        double lon() {
+            return center(lonIndex);
+        }
+
+        private double center(long index) {
+            return Math.round(index * degrees * 10_000d) / 10_000d;
+        }
+    }
+
+    private record Entry(CompletableFuture<WeatherReport> report, Instant abandonAt, Instant expiresAt) {
+
+        // abandonAt doubles as the creation order: it is the creation time plus the fixed fetch timeout
+    // an in-flight fetch is joined until it should have timed out; after that a new request fetches again
+        boolean isUsable(Instant now) {
+            return now.isBefore(report.isDone() ? expiresAt : abandonAt);
+        }
+    }
+}
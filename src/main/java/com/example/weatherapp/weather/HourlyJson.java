@@ -0,0 +1,145 @@
+package com.example.weatherapp.weather;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Arrays;
+
+/**
+ * Streaming Jackson (de)serializers for {@link WeatherReport.Hourly} in the Open-Meteo shape:
+ * {@code {"time": ["2023-01-01T00:00", ...], "temperature_2m": [20.5, null, ...], ...}}.
+ * Values go straight between tokens and primitive arrays; {@code null} elements map to {@code NaN}
+ * and back. Unknown fields are skipped; a time that is neither an ISO date-time nor epoch seconds fails
+ * the read.
+ */
+final class HourlyJson {
+
+    private HourlyJson() {
+    }
+
+    static final class Serializer extends StdSerializer<WeatherReport.Hourly> {
+
+        Serializer() {
+            super(WeatherReport.Hourly.class);
+        }
+
+        @Override
+        public void serialize(WeatherReport.Hourly hourly, JsonGenerator gen, SerializerProvider provider) throws IOException {
+            gen.writeStartObject();
+            final var time = hourly.times();
+            if (time == null) {
+                gen.writeNullField("time");
+            } else {
+                gen.writeArrayFieldStart("time");
+                for (int i = 0; i < time.length; i++) {
+                    final var offset = hourly.offset(i);
+                    if (time[i] == WeatherReport.Hourly.NO_TIME) gen.writeNull();
+                    else if (offset == WeatherReport.Hourly.EPOCH) gen.writeNumber(time[i]);
+                    else gen.writeString(WeatherReport.Hourly.format(time[i], offset));
+                }
+                gen.writeEndArray();
+            }
+            for (final var series : WeatherReport.Hourly.series()) {
+                final var column = hourly.column(series);
+                if (column == null) {
+                    gen.writeNullField(series.field);
+                    continue;
+                }
+                gen.writeArrayFieldStart(series.field);
+                for (final var v : column) {
+                    if (Double.isNaN(v)) gen.writeNull();
+                    else gen.writeNumber(v);
+                }
+                gen.writeEndArray();
+            }
+            gen.writeEndObject();
+        }
+    }
+
+    static final class Deserializer extends StdDeserializer<WeatherReport.Hourly> {
+
+        Deserializer() {
+            super(WeatherReport.Hourly.class);
+        }
+
+        @Override
+        public WeatherReport.Hourly deserialize(JsonParser p, DeserializationContext ctxt) throws IOException {
+            if (p.currentToken() != JsonToken.START_OBJECT) {
+                return (WeatherReport.Hourly) ctxt.handleUnexpectedToken(WeatherReport.Hourly.class, p);
+            }
+            final var series = WeatherReport.Hourly.series();
+            WeatherReport.Hourly.Times times = null;
+            final var columns = new double[series.length][];
+            String field;
+            while ((field = p.nextFieldName()) != null) {
+                final var token = p.nextToken();
+                if ("time".equals(field)) {
+                    if (token == JsonToken.START_ARRAY) times = readTimes(p, ctxt);
+                    else p.skipChildren();
+                    continue;
+                }
+                final var index = indexOf(series, field);
+                if (index < 0 || token != JsonToken.START_ARRAY) {
+                    p.skipChildren();
+                    continue;
+                }
+                columns[index] = readValues(p, ctxt);
+            }
+            return times == null
+                    ? new WeatherReport.Hourly(null, null, columns)
+                    : new WeatherReport.Hourly(times.time(), times.offsets(), columns);
+        }
+
+        private static WeatherReport.Hourly.Times readTimes(JsonParser p, DeserializationContext ctxt) throws IOException {
+            final var times = new WeatherReport.Hourly.Times(256);
+            JsonToken token;
+            while ((token = p.nextToken()) != JsonToken.END_ARRAY) {
+                switch (token) {
+                    case VALUE_STRING -> {
+                        final var text = p.getText();
+                        try {
+                            times.add(text);
+                        } catch (DateTimeParseException e) {
+                            throw ctxt.weirdStringException(text, LocalDateTime.class, "not an ISO date-time");
+                        }
+                    }
+                    // timeformat=unixtime
+                    case VALUE_NUMBER_INT -> times.addEpoch(p.getLongValue());
+                    case VALUE_NULL -> times.add(null);
+                    default -> ctxt.handleUnexpectedToken(LocalDateTime.class, p);
+                }
+            }
+            return times;
+        }
+
+        private static double[] readValues(JsonParser p, DeserializationContext ctxt) throws IOException {
+            var out = new double[256];
+            var n = 0;
+            JsonToken token;
+            while ((token = p.nextToken()) != JsonToken.END_ARRAY) {
+                if (n == out.length) out = Arrays.copyOf(out, n * 2);
+                out[n++] = switch (token) {
+                    case VALUE_NUMBER_INT, VALUE_NUMBER_FLOAT -> p.getDoubleValue();
+                    case VALUE_NULL -> Double.NaN;
+                    default -> (Double) ctxt.handleUnexpectedToken(Double.class, p);
+                };
+            }
+            return Arrays.copyOf(out, n);
+        }
+
+        private static int indexOf(WeatherReport.Hourly.Series[] series, String field) {
+            for (int i = 0; i < series.length; i++) {
+                if (series[i].field.equals(field)) return i;
+            }
+            return -1;
+        }
+    }
+}
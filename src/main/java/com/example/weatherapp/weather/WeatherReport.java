@@ -1,8 +1,16 @@
 package com.example.weatherapp.weather;
 
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
-import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
 
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeFormatterBuilder;
+import java.time.temporal.ChronoField;
+import java.util.AbstractList;
+import java.util.Arrays;
 import java.util.List;
 
 @JsonIgnoreProperties(ignoreUnknown = true)
@@ -12,13 +20,267 @@ public record WeatherReport(
         String timezone,
         Hourly hourly) {
 
-    // Nested class to match the "hourly" object structure
-    @JsonIgnoreProperties(ignoreUnknown = true)
-    public record Hourly(
-            List<String> time,
-            @JsonProperty("temperature_2m") List<Double> temperature2m,
-            List<Double> precipitation,
-            @JsonProperty("wind_speed_10m") List<Double> windSpeed10m,
-            @JsonProperty("relative_humidity_2m") List<Double> relativeHumidity2m) {
+    /**
+     * The "hourly" object of an Open-Meteo forecast, held as primitive columns.
+     * <p>
+     * Times are the local wall-clock timestamps Open-Meteo returns for {@code timezone=auto}, stored as
+     * epoch seconds of that local date-time at UTC ({@link #NO_TIME} when {@code null}). A time may also
+     * carry an offset ({@code 2023-01-01T00:00+01:00} or {@code ...Z}), kept next to its local date-time, or
+     * be epoch seconds ({@code timeformat=unixtime}), kept as given; either is written back the way it was
+     * read. Anything else is rejected. Missing values are {@code NaN}; a series absent from the JSON has a
+     * {@code null} column and reads as all {@code NaN}.
+     * {@link HourlyJson} reads and writes the Open-Meteo JSON shape directly, without boxing.
+     */
+    @JsonSerialize(using = HourlyJson.Serializer.class)
+    @JsonDeserialize(using = HourlyJson.Deserializer.class)
+    public static final class Hourly {
+
+        public static final long NO_TIME = Long.MIN_VALUE;
+
+        // offsets[i] of a local date-time without an offset, and of epoch seconds given as a number
+        static final int NO_OFFSET = Integer.MIN_VALUE;
+        static final int EPOCH = Integer.MAX_VALUE;
+
+        // ISO local date-time, optionally followed by an offset or Z
+        private static final DateTimeFormatter TIME = new DateTimeFormatterBuilder()
+                .append(DateTimeFormatter.ISO_LOCAL_DATE_TIME)
+                .optionalStart()
+                .appendOffsetId()
+                .toFormatter();
+
+        /**
+         * Hourly variables requested from Open-Meteo, with their JSON field names.
+         */
+        public enum Series {
+            TEMPERATURE_2M("temperature_2m"),
+            PRECIPITATION("precipitation"),
+            WIND_SPEED_10M("wind_speed_10m"),
+            RELATIVE_HUMIDITY_2M("relative_humidity_2m");
+
+            final String field;
+
+            Series(String field) {
+                this.field = field;
+            }
+        }
+
+        private static final Series[] SERIES = Series.values();
+
+        private final long[] time;
+        private final int[] offsets; // null when no time has an offset
+        private final double[][] columns;
+
+        Hourly(long[] time, int[] offsets, double[][] columns) {
+            this.time = time;
+            this.offsets = offsets;
+            this.columns = columns;
+        }
+
+        /**
+         * Builds the columns from boxed lists ({@code null} elements become {@code NaN}).
+         *
+         * @throws java.time.format.DateTimeParseException if a time is not an ISO date-time
+         */
+        public Hourly(List<String> time,
+                      List<Double> temperature2m,
+                      List<Double> precipitation,
+                      List<Double> windSpeed10m,
+                      List<Double> relativeHumidity2m) {
+            this(Times.of(time), new double[][]{
+                    unbox(temperature2m), unbox(precipitation), unbox(windSpeed10m), unbox(relativeHumidity2m)
+            });
+        }
+
+        private Hourly(Times times, double[][] columns) {
+            this(times == null ? null : times.time(), times == null ? null : times.offsets(), columns);
+        }
+
+        public int size() {
+            return time == null ? 0 : time.length;
+        }
+
+        /**
+         * Local date-time of hour {@code i} as epoch seconds at UTC (the epoch seconds themselves when given
+         * as a number), or {@link #NO_TIME}.
+         */
+        public long epochSecond(int i) {
+            return time[i];
+        }
+
+        public boolean has(Series series) {
+            return columns[series.ordinal()] != null;
+        }
+
+        /**
+         * Value of {@code series} at hour {@code i}, {@code NaN} when missing.
+         */
+        public double value(Series series, int i) {
+            final var column = columns[series.ordinal()];
+            return column == null || i >= column.length ? Double.NaN : column[i];
+        }
+
+        long[] times() {
+            return time;
+        }
+
+        int offset(int i) {
+            return offsets == null ? NO_OFFSET : offsets[i];
+        }
+
+        double[] column(Series series) {
+            return columns[series.ordinal()];
+        }
+
+        static Series[] series() {
+            return SERIES;
+        }
+
+        // Boxed views for callers that want the Open-Meteo list shape; prefer the primitive accessors.
+
+        public List<String> time() {
+            if (time == null) return null;
+            return new AbstractList<>() {
+                @Override
+                public String get(int i) {
+                    return format(time[i], offset(i));
+                }
+
+                @Override
+                public int size() {
+                    return time.length;
+                }
+            };
+        }
+
+        public List<Double> temperature2m() {
+            return boxed(Series.TEMPERATURE_2M);
+        }
+
+        public List<Double> precipitation() {
+            return boxed(Series.PRECIPITATION);
+        }
+
+        public List<Double> windSpeed10m() {
+            return boxed(Series.WIND_SPEED_10M);
+        }
+
+        public List<Double> relativeHumidity2m() {
+            return boxed(Series.RELATIVE_HUMIDITY_2M);
+        }
+
+        private List<Double> boxed(Series series) {
+            final var column = columns[series.ordinal()];
+            if (column == null) return null;
+            return new AbstractList<>() {
+                @Override
+                public Double get(int i) {
+                    return Double.isNaN(column[i]) ? null : column[i];
+                }
+
+                @Override
+                public int size() {
+                    return column.length;
+                }
+            };
+        }
+
+        /**
+         * "2023-01-01T00:00" (seconds only when non-zero) followed by the offset if any, the epoch seconds
+         * for {@link #EPOCH}, or {@code null} for {@link #NO_TIME}.
+         */
+        static String format(long epochSecond, int offset) {
+            if (epochSecond == NO_TIME) return null;
+            if (offset == EPOCH) return Long.toString(epochSecond);
+            final var local = LocalDateTime.ofEpochSecond(epochSecond, 0, ZoneOffset.UTC);
+            return offset == NO_OFFSET ? local.toString() : local.atOffset(ZoneOffset.ofTotalSeconds(offset)).toString();
+        }
+
+        /**
+         * Collects parsed times and their offsets; {@link #offsets()} is {@code null} until one has an offset.
+         */
+        static final class Times {
+
+            private long[] time;
+            private int[] offsets;
+            private int n;
+
+            Times(int capacity) {
+                time = new long[Math.max(1, capacity)];
+            }
+
+            static Times of(List<String> time) {
+                if (time == null) return null;
+                final var times = new Times(time.size());
+                for (final var t : time) times.add(t);
+                return times;
+            }
+
+            /**
+             * @throws java.time.format.DateTimeParseException if {@code text} is not an ISO date-time
+             */
+            void add(String text) {
+                if (text == null) {
+                    add(NO_TIME, NO_OFFSET);
+                    return;
+                }
+                final var parsed = TIME.parse(text);
+                final var local = LocalDateTime.from(parsed).toEpochSecond(ZoneOffset.UTC);
+                add(local, parsed.isSupported(ChronoField.OFFSET_SECONDS) ? parsed.get(ChronoField.OFFSET_SECONDS) : NO_OFFSET);
+            }
+
+            void addEpoch(long epochSecond) {
+                add(epochSecond, EPOCH);
+            }
+
+            private void add(long epochSecond, int offset) {
+                if (n == time.length) {
+                    time = Arrays.copyOf(time, n * 2);
+                    if (offsets != null) offsets = Arrays.copyOf(offsets, n * 2);
+                }
+                if (offset != NO_OFFSET && offsets == null) {
+                    offsets = new int[time.length];
+                    Arrays.fill(offsets, 0, n, NO_OFFSET);
+                }
+                time[n] = epochSecond;
+                if (offsets != null) offsets[n] = offset;
+                n++;
+            }
+
+            long[] time() {
+                return Arrays.copyOf(time, n);
+            }
+
+            int[] offsets() {
+                return offsets == null ? null : Arrays.copyOf(offsets, n);
+            }
+        }
+
+        private static double[] unbox(List<Double> values) {
+            if (values == null) return null;
+            final var out = new double[values.size()];
+            for (int i = 0; i < out.length; i++) {
+                final var v = values.get(i);
+                out[i] = v == null ? Double.NaN : v;
+            }
+            return out;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Hourly other
+                    && Arrays.equals(time, other.time)
+                    && Arrays.equals(offsets, other.offsets)
+                    && Arrays.deepEquals(columns, other.columns);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * (31 * Arrays.hashCode(time) + Arrays.hashCode(offsets)) + Arrays.deepHashCode(columns);
+        }
+
+        @Override
+        public String toString() {
+            return "Hourly[hours=" + size() + "]";
+        }
     }
-}
\ No newline at end of file
+}
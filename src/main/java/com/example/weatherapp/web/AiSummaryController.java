@@ -1,22 +1,37 @@
 package com.example.weatherapp.web;
 
 import com.example.weatherapp.ai.AiSummaryService;
+import com.example.weatherapp.ai.SummaryBusyException;
+import com.example.weatherapp.ai.SummaryRequest;
 import com.example.weatherapp.weather.WeatherReport;
+import dev.langchain4j.data.message.AiMessage;
+import dev.langchain4j.model.StreamingResponseHandler;
+import dev.langchain4j.model.output.Response;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.io.IOException;
+import java.util.List;
 import java.util.Map;
 
 @RestController
 @RequestMapping("/api/ai-summary")
 public class AiSummaryController {
 
+    private static final long STREAM_TIMEOUT_MS = 120_000L;
+
     private final AiSummaryService aiSummaryService;
+    private final int maxBatchEntries;
 
-    public AiSummaryController(AiSummaryService aiSummaryService) {
+    public AiSummaryController(AiSummaryService aiSummaryService,
+                               @Value("${ai.summary.batch.max-entries:500}") int maxBatchEntries) {
         this.aiSummaryService = aiSummaryService;
+        this.maxBatchEntries = maxBatchEntries;
     }
 
     @PostMapping(consumes = MediaType.APPLICATION_JSON_VALUE, produces = MediaType.APPLICATION_JSON_VALUE)
@@ -30,6 +45,8 @@ public class AiSummaryController {
                     "model", "gemini",
                     "configured", aiSummaryService.isConfigured()
             ));
+        } catch (SummaryBusyException e) {
+            return busy();
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(Map.of(
                     "summary", "AI summary failed.",
@@ -37,4 +54,95 @@ public class AiSummaryController {
             ));
         }
     }
+
+    /**
+     * Summaries for several locations in one call. Entries are summarized concurrently and returned in
+     * request order, each with its own status ({@code ok}, {@code unavailable}, {@code busy} or
+     * {@code not_configured}). A batch with a missing entry or report is rejected as a whole.
+     */
+    @PostMapping(value = "/batch", consumes = MediaType.APPLICATION_JSON_VALUE, produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<?> summarizeBatch(@RequestBody List<SummaryRequest> entries) {
+        if (entries == null) {
+            return ResponseEntity.badRequest().body(Map.of("error", "Expected an array of entries."));
+        }
+        if (entries.size() > maxBatchEntries) {
+            return ResponseEntity.badRequest().body(Map.of(
+                    "error", "At most " + maxBatchEntries + " entries per batch."
+            ));
+        }
+        for (int i = 0; i < entries.size(); i++) {
+            if (entries.get(i) == null || entries.get(i).report() == null) {
+                return ResponseEntity.badRequest().body(Map.of(
+                        "error", "Entry " + i + " has no report."
+                ));
+            }
+        }
+        return ResponseEntity.ok(Map.of(
+                "results", aiSummaryService.summarizeAll(entries),
+                "model", "gemini",
+                "configured", aiSummaryService.isConfigured()
+        ));
+    }
+
+    /**
+     * Same input as {@link #summarize}, but the summary is relayed as server-sent events while the model
+     * generates it: {@code token} events carry {@code {"text": ...}} chunks, followed by one {@code done}
+     * event, or an {@code error} event with the fallback summary.
+     */
+    @PostMapping(value = "/stream", consumes = MediaType.APPLICATION_JSON_VALUE, produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<?> stream(@RequestBody WeatherReport report,
+                                    @RequestParam(value = "timezone", required = false) String timezone,
+                                    @RequestParam(value = "city", required = false) String city) {
+        final var emitter = new SseEmitter(STREAM_TIMEOUT_MS);
+        try {
+            aiSummaryService.streamSummary(report, timezone, city, relayTo(emitter));
+        } catch (SummaryBusyException e) {
+            return busy();
+        }
+        return ResponseEntity.ok(emitter);
+    }
+
+    private StreamingResponseHandler<AiMessage> relayTo(SseEmitter emitter) {
+        return new StreamingResponseHandler<>() {
+            @Override
+            public void onNext(String token) {
+                send(emitter, "token", Map.of("text", token));
+            }
+
+            @Override
+            public void onComplete(Response<AiMessage> response) {
+                send(emitter, "done", Map.of(
+                        "model", "gemini",
+                        "configured", aiSummaryService.isConfigured()
+                ));
+                emitter.complete();
+            }
+
+            @Override
+            public void onError(Throwable error) {
+                send(emitter, "error", Map.of("summary", AiSummaryService.unavailable(error)));
+                emitter.complete();
+            }
+        };
+    }
+
+    private static ResponseEntity<?> busy() {
+        // fail fast rather than tie up a servlet worker behind a saturated model
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "5")
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(Map.of(
+                        "summary", SummaryBusyException.USER_MESSAGE,
+                        "busy", true
+                ));
+    }
+
+    private static void send(SseEmitter emitter, String name, Object data) {
+        try {
+            emitter.send(SseEmitter.event().name(name).data(data, MediaType.APPLICATION_JSON));
+        } catch (IOException | IllegalStateException e) {
+            // client went away or the emitter already timed out; nothing left to deliver to
+            emitter.completeWithError(e);
+        }
+    }
 }
@@ -1,26 +1,67 @@
 package com.example.weatherapp.web;
 
 import com.example.weatherapp.city.CitySearchService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
+import java.time.Duration;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 
 @RestController
 public class CitySearchController {
 
     private final CitySearchService service;
+    private final CacheControl searchCacheControl;
 
-    public CitySearchController(CitySearchService service) {
+    public CitySearchController(CitySearchService service,
+                                @Value("${cities.search.max-age:PT10M}") Duration searchMaxAge) {
         this.service = service;
+        this.searchCacheControl = CacheControl.maxAge(searchMaxAge).cachePublic();
     }
 
+    /**
+     * Suggestions only change with the dataset, so responses carry an ETag derived from the dataset
+     * version and the parameters plus a public max-age; a matching {@code If-None-Match} gets a 304
+     * without running the search.
+     */
     @GetMapping(value = "/api/cities/search", produces = MediaType.APPLICATION_JSON_VALUE)
-    public List<String> search(@RequestParam(name = "q", required = false) String query,
-                               @RequestParam(name = "limit", required = false, defaultValue = "10") int limit) {
+    public ResponseEntity<List<String>> search(@RequestParam(name = "q", required = false) String query,
+                                               @RequestParam(name = "limit", required = false, defaultValue = "10") int limit,
+                                               @RequestParam(name = "fuzzy", required = false, defaultValue = "false") boolean fuzzy,
+                                               WebRequest request) {
         int safeLimit = Math.max(1, Math.min(limit, 50));
-        return service.searchSuggestions(query, safeLimit);
+        final var version = service.datasetVersion();
+        final var etag = version == null ? null : etag(version, query, safeLimit, fuzzy);
+        if (etag != null && request.checkNotModified(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).cacheControl(searchCacheControl).build();
+        }
+        final var suggestions = fuzzy ? service.searchFuzzy(query, safeLimit) : service.searchSuggestions(query, safeLimit);
+        return ResponseEntity.ok().eTag(etag).cacheControl(searchCacheControl).body(suggestions);
+    }
+
+    private static String etag(String version, String query, int limit, boolean fuzzy) {
+        final var params = Objects.hash(query == null ? "" : query.trim(), limit, fuzzy);
+        return "\"" + version + "-" + Integer.toHexString(params) + "\"";
+    }
+
+    @GetMapping(value = "/api/cities/nearest", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<?> nearest(@RequestParam("lat") double lat,
+                                     @RequestParam("lon") double lon,
+                                     @RequestParam(name = "k", required = false, defaultValue = "5") int k) {
+        // NaN fails every comparison, so it has to be rejected explicitly
+        if (!Double.isFinite(lat) || !Double.isFinite(lon) || lat < -90 || lat > 90 || lon < -180 || lon > 180) {
+            return ResponseEntity.badRequest().body(Map.of("error", "Invalid coordinates."));
+        }
+        final var safeK = Math.max(1, Math.min(k, 50));
+        return ResponseEntity.ok(service.nearest(lat, lon, safeK));
     }
 }
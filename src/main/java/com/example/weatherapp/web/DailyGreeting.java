@@ -0,0 +1,61 @@
+package com.example.weatherapp.web;
+
+import dev.langchain4j.model.input.PromptTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * The home page greeting. The template is compiled once and rendered once per calendar day in the
+ * server's time zone; until the next midnight every request gets the same {@link Greeting}, checked with
+ * a single clock read.
+ */
+@Component
+public class DailyGreeting {
+
+    private static final PromptTemplate TEMPLATE =
+            PromptTemplate.from("Welcome to Weather App, {{name}}! Today is {{date}}.");
+
+    private final Clock clock;
+    private final AtomicReference<Greeting> current = new AtomicReference<>();
+
+    public DailyGreeting() {
+        this(Clock.systemDefaultZone());
+    }
+
+    DailyGreeting(Clock clock) {
+        this.clock = clock;
+    }
+
+    /**
+     * @param date            the day the message was rendered for
+     * @param message         the rendered greeting
+     * @param expiresAtMillis the next midnight, after which the greeting is rendered again
+     */
+    public record Greeting(LocalDate date, String message, long expiresAtMillis) {
+    }
+
+    public Greeting today() {
+        final var greeting = current.get();
+        if (greeting != null && clock.millis() < greeting.expiresAtMillis()) {
+            return greeting;
+        }
+        final var fresh = render(LocalDate.now(clock));
+        // a request that read the clock before midnight must not replace the new day's greeting
+        current.compareAndSet(greeting, fresh);
+        return fresh;
+    }
+
+    private Greeting render(LocalDate date) {
+        final var message = TEMPLATE.apply(Map.of(
+                "name", "Traveler",
+                "date", date.format(DateTimeFormatter.ISO_DATE)
+        )).text();
+        final var midnight = date.plusDays(1).atStartOfDay(clock.getZone()).toInstant().toEpochMilli();
+        return new Greeting(date, message, midnight);
+    }
+}
@@ -0,0 +1,38 @@
+package com.example.weatherapp.web;
+
+import com.example.weatherapp.weather.ForecastService;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.client.RestClientException;
+
+import java.util.Map;
+
+@RestController
+public class ForecastController {
+
+    private final ForecastService forecastService;
+
+    public ForecastController(ForecastService forecastService) {
+        this.forecastService = forecastService;
+    }
+
+    @GetMapping(value = "/api/forecast", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<?> forecast(@RequestParam("lat") double lat,
+                                      @RequestParam("lon") double lon) {
+        // NaN fails every comparison and would round to grid cell (0, 0), serving another location's forecast
+        if (!Double.isFinite(lat) || !Double.isFinite(lon) || lat < -90 || lat > 90 || lon < -180 || lon > 180) {
+            return ResponseEntity.badRequest().body(Map.of("error", "Invalid coordinates."));
+        }
+        try {
+            return ResponseEntity.ok(forecastService.forecast(lat, lon));
+        } catch (RestClientException e) {
+            return ResponseEntity.status(HttpStatus.BAD_GATEWAY).body(Map.of(
+                    "error", "Weather provider unavailable."
+            ));
+        }
+    }
+}
@@ -1,14 +1,31 @@
 package com.example.weatherapp.web;
 
+import com.example.weatherapp.ai.AiSummaryService;
+import com.example.weatherapp.weather.ForecastService;
+import com.example.weatherapp.weather.WeatherReport;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.client.RestClientException;
 
 @Controller
 public class ReportController {
 
-    public ReportController() {
+    private final ForecastService forecastService;
+    private final AiSummaryService aiSummaryService;
+    private final boolean serverSide;
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    public ReportController(ForecastService forecastService,
+                            AiSummaryService aiSummaryService,
+                            @Value("${report.server-side.enabled:false}") boolean serverSide) {
+        this.forecastService = forecastService;
+        this.aiSummaryService = aiSummaryService;
+        this.serverSide = serverSide;
     }
 
     @GetMapping("/report")
@@ -16,16 +33,40 @@ public class ReportController {
                          @RequestParam("lon") double lon,
                          @RequestParam(value = "city", required = false) String city,
                          Model model) {
-        // Basic validation of ranges
-        if (lat < -90 || lat > 90 || lon < -180 || lon > 180) {
+        // Basic validation of ranges; NaN fails every comparison and would be served grid cell (0, 0)
+        if (!Double.isFinite(lat) || !Double.isFinite(lon) || lat < -90 || lat > 90 || lon < -180 || lon > 180) {
             model.addAttribute("error", "Invalid coordinates.");
             return "report";
         }
 
-        // Pass only basic info. Weather data will be fetched on the client side.
         model.addAttribute("city", city);
         model.addAttribute("lat", lat);
         model.addAttribute("lon", lon);
+        if (serverSide) {
+            embedForecast(lat, lon, city, model);
+        }
         return "report";
     }
+
+    /**
+     * Inlines the forecast into the page as {@code reportJson}, so the charts draw without another round
+     * trip, and starts the AI summary while the page renders. The summary is keyed the way the page will
+     * request it: the forecast's timezone and the city as shown. If the provider fails, the page is
+     * rendered without data and fetches the forecast itself, as it does when this mode is off.
+     */
+    private void embedForecast(double lat, double lon, String city, Model model) {
+        final WeatherReport report;
+        try {
+            report = forecastService.forecast(lat, lon);
+        } catch (RestClientException e) {
+            return;
+        }
+        aiSummaryService.prefetch(report, report.timezone(), city != null && !city.isBlank() ? city : null);
+        try {
+            // "<" only occurs inside JSON strings, where the escape is equivalent and cannot close the script tag
+            model.addAttribute("reportJson", mapper.writeValueAsString(report).replace("<", "\\u003c"));
+        } catch (JsonProcessingException e) {
+            // the page falls back to fetching the forecast itself
+        }
+    }
 }
@@ -0,0 +1,70 @@
+package com.example.weatherapp.web;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.io.Resource;
+import org.springframework.http.CacheControl;
+import org.springframework.util.DigestUtils;
+import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import org.springframework.web.servlet.resource.ResourceUrlEncodingFilter;
+import org.springframework.web.servlet.resource.VersionResourceResolver;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+
+/**
+ * Serves the page stylesheets and scripts from {@code static/assets} under content-hashed URLs such as
+ * {@code /assets/report-<md5>.css}; templates link them with {@code @{/assets/...}} and the
+ * {@link ResourceUrlEncodingFilter} rewrites the links. A changed file gets a new URL, so with
+ * {@code web.assets.immutable=true} (the prod profile) the hashed responses are cached for
+ * {@code web.assets.max-age} without ever being revalidated, and resolved resources are kept in memory.
+ * Unversioned URLs such as {@code /assets/index.js} keep the same name across releases, so they are
+ * always revalidated against their ETag, as is everything during development.
+ */
+@Configuration
+public class StaticAssetsConfig implements WebMvcConfigurer {
+
+    // a file name carrying the md5 added by the content version strategy, e.g. report-<md5>.css
+    private static final String HASHED_ASSET = "/assets/{file:[\\w.-]+-[0-9a-f]{32}\\.[a-z]+}";
+
+    private final boolean immutable;
+    private final Duration maxAge;
+
+    public StaticAssetsConfig(@Value("${web.assets.immutable:false}") boolean immutable,
+                              @Value("${web.assets.max-age:P365D}") Duration maxAge) {
+        this.immutable = immutable;
+        this.maxAge = maxAge;
+    }
+
+    @Override
+    public void addResourceHandlers(ResourceHandlerRegistry registry) {
+        assets(registry, HASHED_ASSET,
+                immutable ? CacheControl.maxAge(maxAge).cachePublic().immutable() : CacheControl.noCache());
+        assets(registry, "/assets/**", CacheControl.noCache());
+    }
+
+    private void assets(ResourceHandlerRegistry registry, String pattern, CacheControl cacheControl) {
+        registry.addResourceHandler(pattern)
+                .addResourceLocations("classpath:/static/assets/")
+                .setCacheControl(cacheControl)
+                .setEtagGenerator(StaticAssetsConfig::etag)
+                .resourceChain(immutable)
+                .addResolver(new VersionResourceResolver().addContentVersionStrategy("/**"));
+    }
+
+    private static String etag(Resource resource) {
+        try (final var in = resource.getInputStream()) {
+            return DigestUtils.md5DigestAsHex(in);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Bean
+    public ResourceUrlEncodingFilter resourceUrlEncodingFilter() {
+        return new ResourceUrlEncodingFilter();
+    }
+}
@@ -0,0 +1,179 @@
+(function () {
+  const input = document.getElementById('city-input');
+  const datalist = document.getElementById('city-suggestions');
+  const form = document.getElementById('location-form');
+  const geoBtn = document.getElementById('geo-btn');
+  const resetBtn = document.getElementById('reset-btn');
+  const latEl = document.getElementById('lat');
+  const lonEl = document.getElementById('lon');
+  const submitBtn = document.getElementById('submit-btn');
+
+  // Validate before submission: ensure we have parsed coordinates
+  form.addEventListener('submit', function (e) {
+    const lat = document.getElementById('lat').value;
+    const lon = document.getElementById('lon').value;
+    if (!lat || !lon) {
+      e.preventDefault();
+      alert('Please select a location from suggestions to include coordinates.');
+      return;
+    }
+    // Modify city input to only send first word up to first comma
+    const input = document.getElementById('city-input');
+    const cityVal = input.value || '';
+    // Extract up to first comma, or first word if no comma
+    let cityFirstWord = cityVal.split(',')[0].trim().split(/\s+/)[0];
+    input.value = cityFirstWord;
+    // Ensure city input is enabled so it is included in the form submission
+    input.disabled = false;
+  });
+
+  let timer = null;
+  const debounce = (fn, delay = 250) => {
+    return (...args) => {
+      clearTimeout(timer);
+      timer = setTimeout(() => fn.apply(null, args), delay);
+    };
+  };
+
+  function shouldSearch(text) {
+    const t = (text || '').trim();
+    if (!t) return false;
+    const chars = t.length;
+    const words = t.split(/\s+/).filter(Boolean).length;
+    // The issue text says "more than 3 words"; we also allow >3 characters to be user-friendly
+    return words > 3 || chars > 3;
+  }
+
+  async function fetchSuggestions(q) {
+    try {
+      // fuzzy: exact matches first, topped up with names a typo or two away ("Zurih" still finds Zürich)
+      const resp = await fetch(`/api/cities/search?q=${encodeURIComponent(q)}&limit=10&fuzzy=true`);
+      if (!resp.ok) return [];
+      return await resp.json();
+    } catch (e) {
+      return [];
+    }
+  }
+
+  function setSuggestions(list) {
+    datalist.innerHTML = '';
+    (list || []).forEach(item => {
+      const opt = document.createElement('option');
+      opt.value = item; // using formatted suggestion string as the value
+      datalist.appendChild(opt);
+    });
+  }
+
+  const handleInput = debounce(async function (e) {
+    const q = e.target.value || '';
+    if (!shouldSearch(q)) {
+      setSuggestions([]);
+      return;
+    }
+    const suggestions = await fetchSuggestions(q);
+    setSuggestions(suggestions);
+  }, 250);
+
+  function parseCoordsFromInput(val) {
+    // Match last pair of parentheses with two numbers: (lat,lon)
+    const m = (val || '').match(/\(([-+]?\d*\.?\d+),\s*([-+]?\d*\.?\d+)\)\s*$/);
+    if (!m) return null;
+    const lat = parseFloat(m[1]);
+    const lon = parseFloat(m[2]);
+    if (Number.isFinite(lat) && Number.isFinite(lon)) return { lat, lon };
+    return null;
+  }
+
+  function updateStateFromInput() {
+    const val = input.value || '';
+    const coords = parseCoordsFromInput(val);
+    const submitBtn = document.getElementById('submit-btn');
+    const latEl = document.getElementById('lat');
+    const lonEl = document.getElementById('lon');
+    if (coords) {
+      latEl.value = coords.lat;
+      lonEl.value = coords.lon;
+      submitBtn.disabled = false;
+    } else {
+      latEl.value = '';
+      lonEl.value = '';
+      submitBtn.disabled = true;
+    }
+  }
+
+  geoBtn.addEventListener('click', function () {
+    if (!navigator.geolocation) {
+      alert('Geolocation is not supported by your browser.');
+      return;
+    }
+    geoBtn.disabled = true;
+    geoBtn.textContent = 'Locating...';
+    navigator.geolocation.getCurrentPosition(
+      async function (pos) {
+        const { latitude, longitude } = pos.coords;
+        latEl.value = latitude;
+        lonEl.value = longitude;
+        // Reverse geocode using Nominatim
+        let cityLabel = '';
+        try {
+          const url = `https://nominatim.openstreetmap.org/reverse?lat=${latitude}&lon=${longitude}&format=json&accept-language=en`;
+          const resp = await fetch(url, {
+            headers: { 'User-Agent': 'weather-app-demo' }
+          });
+          if (resp.ok) {
+            const data = await resp.json();
+            // Try to get city/town/village/hamlet
+            const addr = data.address || {};
+            cityLabel = addr.city || addr.town || addr.village || addr.hamlet || '';
+            const countryCode = addr.country_code ? addr.country_code.toUpperCase() : '';
+            if (cityLabel && countryCode) {
+              cityLabel = `${cityLabel} ${countryCode}`;
+            }
+          }
+        } catch (e) {
+          // ignore, fallback below
+        }
+        if (!cityLabel) {
+          cityLabel = `${latitude.toFixed(5)},${longitude.toFixed(5)}`;
+        } else {
+          cityLabel = `${cityLabel} (${latitude.toFixed(5)},${longitude.toFixed(5)})`;
+        }
+        input.value = cityLabel;
+        // Do not disable input here, so its value is sent with the form
+        // input.disabled = true;
+        datalist.innerHTML = '';
+        submitBtn.disabled = false;
+        geoBtn.style.display = 'none';
+        resetBtn.style.display = '';
+        geoBtn.textContent = 'Use my location';
+      },
+      function (err) {
+        alert('Unable to retrieve your location.');
+        geoBtn.disabled = false;
+        geoBtn.textContent = 'Use my location';
+      }
+    );
+  });
+
+  resetBtn.addEventListener('click', function () {
+    input.value = '';
+    input.disabled = false;
+    latEl.value = '';
+    lonEl.value = '';
+    submitBtn.disabled = true;
+    geoBtn.style.display = '';
+    resetBtn.style.display = 'none';
+    datalist.innerHTML = '';
+  });
+
+  input.addEventListener('input', (e) => {
+    handleInput(e);
+    updateStateFromInput();
+  });
+
+  // Also run on blur in case selection happens via click on datalist
+  input.addEventListener('change', updateStateFromInput);
+
+  // Init state
+  updateStateFromInput();
+})();
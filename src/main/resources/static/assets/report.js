@@ -0,0 +1,299 @@
+// Load Google Charts
+google.charts.load('current', { packages: ['corechart'] });
+google.charts.setOnLoadCallback(initReport);
+
+let chartDataCache = {};
+
+function initReport() {
+  // If server-side validation failed, don't attempt client fetch
+  if (document.getElementById('server-error')) {
+    document.getElementById('loading').style.display = 'none';
+    return;
+  }
+  const latText = (document.getElementById('lat-value')?.textContent || '').trim();
+  const lonText = (document.getElementById('lon-value')?.textContent || '').trim();
+  const lat = parseFloat(latText);
+  const lon = parseFloat(lonText);
+  if (!Number.isFinite(lat) || !Number.isFinite(lon)) {
+    showClientError('Invalid coordinates.');
+    return;
+  }
+  initMap(lat, lon); // <-- Add this line to initialize the map
+  const embedded = readEmbeddedReport();
+  if (embedded) {
+    showReport(embedded);
+  } else {
+    fetchAndDraw(lat, lon);
+  }
+}
+
+// Forecast inlined by the server (report.server-side.enabled), if any
+function readEmbeddedReport() {
+  try {
+    const data = JSON.parse(document.getElementById('report-json')?.textContent || 'null');
+    return data && data.hourly ? data : null;
+  } catch (e) {
+    return null;
+  }
+}
+
+// Initialize Leaflet map
+function initMap(lat, lon) {
+  const map = L.map('map').setView([lat, lon], 11);
+  L.tileLayer('https://{s}.tile.openstreetmap.org/{z}/{x}/{y}.png', {
+    attribution: '&copy; <a href="https://www.openstreetmap.org/">OpenStreetMap</a> contributors'
+  }).addTo(map);
+  L.marker([lat, lon]).addTo(map);
+}
+
+async function fetchAndDraw(lat, lon) {
+  // Served (and cached per grid cell) by the backend instead of calling Open-Meteo from every browser
+  const url = new URL('/api/forecast', window.location.origin);
+  url.searchParams.set('lat', lat);
+  url.searchParams.set('lon', lon);
+
+  try {
+    const resp = await fetch(url.toString());
+    if (!resp.ok) throw new Error('Weather API request failed');
+    showReport(await resp.json());
+  } catch (e) {
+    console.error(e);
+    showClientError('Failed to fetch weather data. Please try again later.');
+  }
+}
+
+function showReport(data) {
+  try {
+    fetchAiSummary(data)
+    const hourly = data.hourly || {};
+    // Update timezone display
+    const tz = data.timezone || 'auto';
+    const tzEl = document.getElementById('timezone');
+    if (tzEl) tzEl.textContent = tz;
+
+    if (!hourly.time || !hourly.temperature_2m) {
+      throw new Error('Incomplete data from weather API');
+    }
+
+    // Helper to convert ISO datetime string to JS Date
+    const toDate = (s) => new Date(String(s));
+
+    // Prepare data for charts and cache for redraw
+    chartDataCache = {
+      tempChart: {
+        type: 'LineChart',
+        title: 'Temperature 2m (°C)',
+        columns: ['Time', 'Temperature (°C)'],
+        rows: hourly.time.map((t, i) => [toDate(t), safeNumber(hourly.temperature_2m[i])])
+      },
+      precipChart: {
+        type: 'ColumnChart',
+        title: 'Precipitation (mm)',
+        columns: ['Time', 'Precipitation (mm)'],
+        rows: hourly.time.map((t, i) => [toDate(t), safeNumber(hourly.precipitation?.[i])])
+      },
+      windChart: {
+        type: 'LineChart',
+        title: 'Wind speed 10m (m/s)',
+        columns: ['Time', 'Wind speed (m/s)'],
+        rows: hourly.time.map((t, i) => [toDate(t), safeNumber(hourly.wind_speed_10m?.[i])])
+      },
+      humidityChart: {
+        type: 'LineChart',
+        title: 'Relative humidity 2m (%)',
+        columns: ['Time', 'Humidity (%)'],
+        rows: hourly.time.map((t, i) => [toDate(t), safeNumber(hourly.relative_humidity_2m?.[i])])
+      }
+    };
+
+    document.getElementById('loading').style.display = 'none';
+    document.getElementById('charts').style.display = '';
+    redrawAllCharts();
+  } catch (e) {
+    console.error(e);
+    showClientError('Failed to display weather data. Please try again later.');
+  }
+}
+
+function showClientError(message) {
+  document.getElementById('loading').style.display = 'none';
+  const el = document.getElementById('client-error');
+  el.textContent = message || 'An error occurred';
+  el.style.display = '';
+}
+
+function safeNumber(v) {
+  const n = Number(v);
+  return Number.isFinite(n) ? n : null;
+}
+
+function redrawAllCharts() {
+  for (const [id, chartInfo] of Object.entries(chartDataCache)) {
+    if (chartInfo.type === 'LineChart') {
+      drawLineChart(id, chartInfo.title, chartInfo.columns, chartInfo.rows);
+    } else if (chartInfo.type === 'ColumnChart') {
+      drawColumnChart(id, chartInfo.title, chartInfo.columns, chartInfo.rows);
+    }
+  }
+}
+
+function drawLineChart(elementId, title, columns, rows) {
+  const data = new google.visualization.DataTable();
+  data.addColumn('datetime', columns[0]);
+  data.addColumn('number', columns[1]);
+  rows.forEach(r => data.addRow(r));
+    const isDark = window.matchMedia && window.matchMedia('(prefers-color-scheme: dark)').matches;
+  const options = {
+    title: title,
+      legend: {position: 'none', textStyle: {color: isDark ? '#e6e9f0' : '#172033'}},
+      backgroundColor: 'transparent',
+      colors: isDark ? ['#4f8cff'] : undefined,
+      titleTextStyle: {color: isDark ? '#e6e9f0' : '#172033', fontSize: 14},
+    height: document.getElementById(elementId)?.offsetHeight || 360,
+    width: document.getElementById(elementId)?.offsetWidth || undefined,
+      hAxis: {
+          format: 'M/d HH:mm',
+          textStyle: {color: isDark ? '#c9d1e1' : '#51607a'},
+          gridlines: {color: isDark ? '#23304d' : '#e5eaf2'},
+          baselineColor: isDark ? '#23304d' : '#e5eaf2'
+      },
+      vAxis: {
+          textStyle: {color: isDark ? '#c9d1e1' : '#51607a'},
+          gridlines: {color: isDark ? '#23304d' : '#e5eaf2'},
+          baselineColor: isDark ? '#23304d' : '#e5eaf2'
+      },
+    chartArea: { left: 60, top: 40, width: '80%', height: '70%' }
+  };
+  const chart = new google.visualization.LineChart(document.getElementById(elementId));
+  chart.draw(data, options);
+}
+
+function drawColumnChart(elementId, title, columns, rows) {
+  const data = new google.visualization.DataTable();
+  data.addColumn('datetime', columns[0]);
+  data.addColumn('number', columns[1]);
+  rows.forEach(r => data.addRow(r));
+    const isDark = window.matchMedia && window.matchMedia('(prefers-color-scheme: dark)').matches;
+  const options = {
+    title: title,
+      legend: {position: 'none', textStyle: {color: isDark ? '#e6e9f0' : '#172033'}},
+      backgroundColor: 'transparent',
+      colors: isDark ? ['#4f8cff'] : undefined,
+      titleTextStyle: {color: isDark ? '#e6e9f0' : '#172033', fontSize: 14},
+    height: document.getElementById(elementId)?.offsetHeight || 360,
+    width: document.getElementById(elementId)?.offsetWidth || undefined,
+      hAxis: {
+          format: 'M/d HH:mm',
+          textStyle: {color: isDark ? '#c9d1e1' : '#51607a'},
+          gridlines: {color: isDark ? '#23304d' : '#e5eaf2'},
+          baselineColor: isDark ? '#23304d' : '#e5eaf2'
+      },
+      vAxis: {
+          textStyle: {color: isDark ? '#c9d1e1' : '#51607a'},
+          gridlines: {color: isDark ? '#23304d' : '#e5eaf2'},
+          baselineColor: isDark ? '#23304d' : '#e5eaf2'
+      },
+    chartArea: { left: 60, top: 40, width: '80%', height: '70%' }
+  };
+  const chart = new google.visualization.ColumnChart(document.getElementById(elementId));
+  chart.draw(data, options);
+}
+
+async function fetchAiSummary(report) {
+  const target = document.getElementById('aiSummaryContent');
+  if (!report || !target) return;
+  const params = new URLSearchParams();
+  // the same timezone and city the server prefetches the summary with
+  const tz = report.timezone || undefined;
+  const city = document.getElementById('cityName')?.textContent || undefined;
+  if (tz) params.set('timezone', tz);
+  if (city) params.set('city', city);
+  const query = params.toString() ? ('?' + params.toString()) : '';
+
+  try {
+    // Stream the summary so the first words show up while the model is still writing
+    const resp = await fetch('/api/ai-summary/stream' + query, {
+      method: 'POST',
+      headers: { 'Content-Type': 'application/json', 'Accept': 'text/event-stream' },
+      body: JSON.stringify(report)
+    });
+    if (!resp.ok || !resp.body) throw new Error('Streaming unavailable');
+    await renderSummaryStream(resp.body, target);
+  } catch (err) {
+    await fetchAiSummaryOnce(report, query, target);
+  }
+}
+
+async function renderSummaryStream(body, target) {
+  const reader = body.getReader();
+  const decoder = new TextDecoder();
+  let buffer = '';
+  let text = '';
+  for (;;) {
+    const { value, done } = await reader.read();
+    if (done) break;
+    buffer += decoder.decode(value, { stream: true });
+    let boundary;
+    while ((boundary = buffer.indexOf('\n\n')) >= 0) {
+      const event = parseSseEvent(buffer.slice(0, boundary));
+      buffer = buffer.slice(boundary + 2);
+      if (event.name === 'token') {
+        text += event.data?.text || '';
+        target.innerHTML = marked.parse(text);
+        target.classList.remove('muted');
+      } else if (event.name === 'error') {
+        target.textContent = event.data?.summary || 'AI summary unavailable.';
+        target.classList.remove('muted');
+        return;
+      }
+    }
+  }
+  if (!text) {
+    target.textContent = 'No AI summary available.';
+    target.classList.remove('muted');
+  }
+}
+
+function parseSseEvent(raw) {
+  let name = 'message';
+  const data = [];
+  for (const line of raw.split('\n')) {
+    if (line.startsWith('event:')) name = line.slice(6).trim();
+    else if (line.startsWith('data:')) data.push(line.slice(5));
+  }
+  try {
+    return { name, data: JSON.parse(data.join('\n')) };
+  } catch (e) {
+    return { name, data: null };
+  }
+}
+
+async function fetchAiSummaryOnce(report, query, target) {
+  try {
+    const resp = await fetch('/api/ai-summary' + query, {
+      method: 'POST',
+      headers: { 'Content-Type': 'application/json' },
+      body: JSON.stringify(report)
+    });
+    const data = await resp.json();
+    if (!resp.ok) {
+      target.textContent = data?.summary || 'AI summary failed.';
+      target.classList.remove('muted');
+      return;
+    }
+    const summary = data?.summary || 'No AI summary available.';
+    // Render markdown using marked.js
+    target.innerHTML = marked.parse(summary);
+    target.classList.remove('muted');
+  } catch (err) {
+    target.textContent = 'AI summary unavailable.';
+    target.classList.remove('muted');
+  }
+}
+
+// Redraw charts on window resize
+window.addEventListener('resize', () => {
+  if (Object.keys(chartDataCache).length > 0) {
+    redrawAllCharts();
+  }
+});
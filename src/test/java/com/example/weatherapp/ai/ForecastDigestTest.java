@@ -0,0 +1,49 @@
+package com.example.weatherapp.ai;
+
+import com.example.weatherapp.weather.WeatherReport;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ForecastDigestTest {
+
+    @Test
+    public void shouldSummarizeEachBlockOnOneLine() {
+        final var hourly = new WeatherReport.Hourly(
+                List.of("2023-01-01T00:00", "2023-01-01T01:00", "2023-01-01T02:00", "2023-01-01T03:00"),
+                List.of(20.5, 21.0, 18.25, 19.0),
+                List.of(0.0, 1.2, 0.0, 0.0),
+                List.of(5.0, 12.5, 7.0, 3.0),
+                List.of(65.0, 70.0, 80.0, 75.0)
+        );
+
+        final var lines = ForecastDigest.encode(hourly, 2).split("\n");
+
+        assertThat(lines).hasSize(3);
+        assertThat(lines[1]).isEqualTo("2023-01-01 00-01h | 20.5..21 (20.8) | 1.2 (1/2 h, 01h) | 12.5 | 65..70");
+        assertThat(lines[2]).isEqualTo("2023-01-01 02-03h | 18.3..19 (18.6) | 0 (dry) | 7 | 75..80");
+    }
+
+    @Test
+    public void shouldSkipMissingValues() {
+        final var hourly = new WeatherReport.Hourly(
+                List.of("2023-01-01T23:00", "2023-01-02T00:00"),
+                Arrays.asList(null, -1.5),
+                null,
+                Arrays.asList(null, null),
+                List.of(90.0)
+        );
+
+        final var lines = ForecastDigest.encode(hourly, 24).split("\n");
+
+        assertThat(lines[1]).isEqualTo("2023-01-01 23..2023-01-02 00h | -1.5..-1.5 (-1.5) | - | - | 90..90");
+    }
+
+    @Test
+    public void shouldHandleMissingHourlyData() {
+        assertThat(ForecastDigest.encode(null, 6)).isEqualTo("No hourly data.");
+    }
+}
@@ -0,0 +1,184 @@
+package com.example.weatherapp.ai;
+
+import com.sun.net.httpserver.HttpServer;
+import dev.langchain4j.data.message.AiMessage;
+import dev.langchain4j.data.message.UserMessage;
+import dev.langchain4j.model.StreamingResponseHandler;
+import dev.langchain4j.model.output.Response;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.RestClient;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class GeminiChatModelTest {
+
+    private static final String ANSWER = """
+            {"candidates": [{"content": {"role": "model", "parts": [{"text": "Mild "}, {"text": "and dry."}]}}]}""";
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final ConcurrentLinkedQueue<Integer> failures = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger calls = new AtomicInteger();
+    private final ConcurrentLinkedQueue<String> apiKeys = new ConcurrentLinkedQueue<>();
+    private volatile String answer = ANSWER;
+    private HttpServer server;
+
+    @BeforeEach
+    public void startGemini() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/v1beta/models/", exchange -> {
+            calls.incrementAndGet();
+            apiKeys.add(exchange.getRequestHeaders().getFirst("x-goog-api-key"));
+            exchange.getRequestBody().readAllBytes();
+            final var failure = failures.poll();
+            if (failure != null) {
+                exchange.sendResponseHeaders(failure, -1);
+                exchange.close();
+                return;
+            }
+            final var streaming = exchange.getRequestURI().getPath().endsWith(":streamGenerateContent");
+            final var body = (streaming ? "data: " + answer + "\n\ndata: " + answer + "\n\n" : answer).getBytes(UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", streaming ? "text/event-stream" : "application/json");
+            exchange.sendResponseHeaders(200, body.length);
+            try (final var os = exchange.getResponseBody()) {
+                os.write(body);
+            }
+        });
+        server.start();
+    }
+
+    @AfterEach
+    public void stopGemini() {
+        server.stop(0);
+    }
+
+    @Test
+    public void transientFailuresShouldBeRetriedOnPooledConnections() throws IOException {
+        failures.add(503);
+        failures.add(429);
+        final var http = http(3, Duration.ofSeconds(10));
+
+        final var summary = new GeminiChatModel(http, "test-key", "gemini-1.5-flash").generate("Summarize");
+
+        assertThat(summary).isEqualTo("Mild and dry.");
+        assertThat(calls.get()).isEqualTo(3);
+        assertThat(apiKeys).containsOnly("test-key");
+        assertThat(registry.counter("ai.gemini.retries").count()).isEqualTo(2.0);
+        assertThat(registry.get("ai.gemini.pool.leased").gauge().value()).isZero();
+        assertThat(registry.get("ai.gemini.pool.available").gauge().value()).isEqualTo(1.0);
+        assertThat(registry.get("ai.gemini.pool.max").gauge().value()).isEqualTo(4.0);
+        http.close();
+    }
+
+    @Test
+    public void clientErrorsShouldNotBeRetried() throws IOException {
+        failures.add(400);
+        final var http = http(3, Duration.ofSeconds(10));
+
+        assertThatThrownBy(() -> new GeminiChatModel(http, "test-key", "gemini-1.5-flash").generate("Summarize"))
+                .isInstanceOf(HttpClientErrorException.class);
+        assertThat(calls.get()).isEqualTo(1);
+        assertThat(registry.counter("ai.gemini.retries").count()).isZero();
+        http.close();
+    }
+
+    @Test
+    public void retriesShouldStopAtTheDeadline() throws IOException {
+        failures.add(503);
+        final var http = http(3, Duration.ZERO);
+
+        assertThatThrownBy(() -> new GeminiChatModel(http, "test-key", "gemini-1.5-flash").generate("Summarize"))
+                .hasMessageContaining("503");
+        assertThat(calls.get()).isEqualTo(1);
+        http.close();
+    }
+
+    @Test
+    public void streamShouldBeRetriedBeforeTheFirstToken() throws IOException {
+        failures.add(502);
+        final var http = http(3, Duration.ofSeconds(10));
+        final var tokens = new ArrayList<String>();
+        final var completed = new ArrayList<String>();
+
+        new GeminiStreamingChatModel(http, "test-key", "gemini-1.5-flash").generate(List.of(UserMessage.from("Summarize")),
+                new StreamingResponseHandler<AiMessage>() {
+                    @Override
+                    public void onNext(String token) {
+                        tokens.add(token);
+                    }
+
+                    @Override
+                    public void onComplete(Response<AiMessage> response) {
+                        completed.add(response.content().text());
+                    }
+
+                    @Override
+                    public void onError(Throwable error) {
+                        completed.add("error: " + error.getMessage());
+                    }
+                });
+
+        assertThat(tokens).containsExactly("Mild and dry.", "Mild and dry.");
+        assertThat(completed).containsExactly("Mild and dry.Mild and dry.");
+        assertThat(calls.get()).isEqualTo(2);
+        http.close();
+    }
+
+    @Test
+    public void blockedOrEmptyAnswersShouldFail() throws IOException {
+        final var http = http(3, Duration.ofSeconds(10));
+        final var model = new GeminiChatModel(http, "test-key", "gemini-1.5-flash");
+
+        answer = """
+                {"promptFeedback": {"blockReason": "SAFETY"}}""";
+        assertThatThrownBy(() -> model.generate("Summarize")).hasMessageContaining("SAFETY");
+
+        answer = """
+                {"candidates": [{"content": {"parts": [{"text": "Partly"}]}, "finishReason": "RECITATION"}]}""";
+        assertThatThrownBy(() -> model.generate("Summarize")).hasMessageContaining("RECITATION");
+
+        answer = "{}";
+        assertThatThrownBy(() -> model.generate("Summarize")).hasMessageContaining("empty");
+
+        final var outcome = new ArrayList<String>();
+        new GeminiStreamingChatModel(http, "test-key", "gemini-1.5-flash").generate(List.of(UserMessage.from("Summarize")),
+                new StreamingResponseHandler<AiMessage>() {
+                    @Override
+                    public void onNext(String token) {
+                        outcome.add(token);
+                    }
+
+                    @Override
+                    public void onComplete(Response<AiMessage> response) {
+                        outcome.add("complete");
+                    }
+
+                    @Override
+                    public void onError(Throwable error) {
+                        outcome.add("error: " + error.getMessage());
+                    }
+                });
+        assertThat(outcome).containsExactly("error: Gemini returned an empty answer");
+        assertThat(registry.counter("ai.gemini.retries").count()).isZero();
+        http.close();
+    }
+
+    private GeminiHttpClient http(int maxAttempts, Duration deadline) {
+        return new GeminiHttpClient(RestClient.builder(), "http://localhost:" + server.getAddress().getPort(),
+                4, Duration.ofSeconds(2), Duration.ofSeconds(5), Duration.ofMinutes(1),
+                maxAttempts, Duration.ofMillis(10), deadline, registry);
+    }
+}
@@ -0,0 +1,88 @@
+package com.example.weatherapp.ai;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class SingleFlightTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final SingleFlight<String, String> singleFlight = new SingleFlight<>(registry.counter("coalesced"));
+
+    @Test
+    public void concurrentCallsForOneKeyShouldShareOneCall() throws Exception {
+        final var calls = new AtomicInteger();
+        final var release = new CountDownLatch(1);
+        final var results = new ArrayList<Future<String>>();
+
+        try (final var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            results.add(executor.submit(() -> singleFlight.call("paris", () -> {
+                calls.incrementAndGet();
+                await(release);
+                return "sunny";
+            }, CompletableFuture::join)));
+            while (singleFlight.size() == 0) {
+                Thread.sleep(1);
+            }
+            for (int i = 0; i < 9; i++) {
+                results.add(executor.submit(() -> singleFlight.call("paris", () -> {
+                    calls.incrementAndGet();
+                    return "duplicate";
+                }, CompletableFuture::join)));
+            }
+            while (registry.counter("coalesced").count() < 9) {
+                Thread.sleep(1);
+            }
+            release.countDown();
+        }
+
+        for (final var result : results) {
+            assertThat(result.get()).isEqualTo("sunny");
+        }
+        assertThat(calls.get()).isEqualTo(1);
+        assertThat(singleFlight.size()).isZero();
+    }
+
+    @Test
+    public void callsShouldNotOutliveTheirFlight() {
+        assertThat(singleFlight.call("paris", () -> "first", CompletableFuture::join)).isEqualTo("first");
+        assertThat(singleFlight.call("paris", () -> "second", CompletableFuture::join)).isEqualTo("second");
+
+        assertThat(singleFlight.join("paris")).isNull();
+        assertThat(registry.counter("coalesced").count()).isZero();
+    }
+
+    @Test
+    public void failuresShouldReachWaitersAndBeForgotten() {
+        final var started = new CompletableFuture<CompletableFuture<String>>();
+        singleFlight.start("berlin", started::complete);
+
+        final var waiting = singleFlight.join("berlin");
+        started.join().completeExceptionally(new IllegalStateException("quota"));
+
+        assertThat(waiting).isCompletedExceptionally();
+        assertThat(singleFlight.start("berlin", flight -> flight.complete("retried"))).isTrue();
+        assertThat(registry.counter("coalesced").count()).isEqualTo(1.0);
+        assertThatThrownBy(() -> singleFlight.call("rome", () -> {
+            throw new IllegalStateException("down");
+        }, CompletableFuture::join)).hasMessage("down");
+        assertThat(singleFlight.size()).isZero();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
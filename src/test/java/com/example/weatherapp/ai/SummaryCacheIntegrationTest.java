@@ -0,0 +1,178 @@
+package com.example.weatherapp.ai;
+
+import com.example.weatherapp.weather.WeatherReport;
+import dev.langchain4j.data.message.AiMessage;
+import dev.langchain4j.model.StreamingResponseHandler;
+import dev.langchain4j.model.chat.ChatLanguageModel;
+import dev.langchain4j.model.chat.StreamingChatLanguageModel;
+import dev.langchain4j.model.output.Response;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+public class SummaryCacheIntegrationTest {
+
+    @Autowired
+    private AiSummaryService aiSummaryService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private ChatLanguageModel model;
+    private Object geminiModel;
+
+    @BeforeEach
+    public void setup() {
+        model = mock(ChatLanguageModel.class);
+        when(model.generate(anyString())).thenReturn("Mild and dry.");
+        geminiModel = ReflectionTestUtils.getField(aiSummaryService, "chatModel");
+        ReflectionTestUtils.setField(aiSummaryService, "chatModel", model);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        ReflectionTestUtils.setField(aiSummaryService, "chatModel", geminiModel);
+    }
+
+    @Test
+    public void identicalRequestsShouldCallTheModelOnce() {
+        final var hitsBefore = hits();
+
+        final var first = aiSummaryService.summarize(report(40.7128, 20.5), "America/New_York", "Cache City A");
+        final var second = aiSummaryService.summarize(report(40.7128, 20.5), "America/New_York", "Cache City A");
+
+        assertThat(first).isEqualTo("Mild and dry.");
+        assertThat(second).isEqualTo(first);
+        verify(model, times(1)).generate(anyString());
+        assertThat(hits() - hitsBefore).isEqualTo(1.0);
+    }
+
+    @Test
+    public void nearIdenticalForecastsShouldShareASummary() {
+        aiSummaryService.summarize(report(40.7128, 20.6), "America/New_York", "Cache City B");
+        aiSummaryService.summarize(report(40.7301, 20.8), "America/New_York", "Cache City B");
+
+        verify(model, times(1)).generate(anyString());
+    }
+
+    @Test
+    public void differentContextShouldMissTheCache() {
+        aiSummaryService.summarize(report(40.7128, 20.5), "America/New_York", "Cache City C");
+        aiSummaryService.summarize(report(40.7128, 20.5), "America/New_York", "Cache City D");
+        aiSummaryService.summarize(report(40.7128, 25.0), "America/New_York", "Cache City C");
+
+        verify(model, times(3)).generate(anyString());
+    }
+
+    @Test
+    public void failedGenerationsShouldNotBeCached() {
+        when(model.generate(anyString())).thenThrow(new RuntimeException("quota")).thenReturn("Recovered.");
+
+        final var failed = aiSummaryService.summarize(report(10.0, 20.5), "UTC", "Cache City E");
+        final var retried = aiSummaryService.summarize(report(10.0, 20.5), "UTC", "Cache City E");
+
+        assertThat(failed).startsWith("AI summary unavailable at the moment.");
+        assertThat(retried).isEqualTo("Recovered.");
+    }
+
+    @Test
+    public void requestsShouldWaitForAPrefetchInsteadOfCallingTheModelAgain() {
+        when(model.generate(anyString())).thenAnswer(invocation -> {
+            Thread.sleep(200);
+            return "Prefetched.";
+        });
+
+        aiSummaryService.prefetch(report(20.0, 20.5), "UTC", "Cache City F");
+        aiSummaryService.prefetch(report(20.0, 20.5), "UTC", "Cache City F");
+        final var summary = aiSummaryService.summarize(report(20.0, 20.5), "UTC", "Cache City F");
+
+        assertThat(summary).isEqualTo("Prefetched.");
+        verify(model, times(1)).generate(anyString());
+    }
+
+    @Test
+    public void concurrentStreamsShouldShareOneModelCall() throws Exception {
+        final var streams = new AtomicInteger();
+        final var release = new CountDownLatch(1);
+        final var original = ReflectionTestUtils.getField(aiSummaryService, "streamingModel");
+        ReflectionTestUtils.setField(aiSummaryService, "streamingModel", (StreamingChatLanguageModel) (messages, handler) -> {
+            streams.incrementAndGet();
+            handler.onNext("Windy");
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            handler.onNext(" later.");
+            handler.onComplete(Response.from(AiMessage.from("Windy later.")));
+        });
+        try {
+            final var first = new CompletableFuture<String>();
+            final var second = new CompletableFuture<String>();
+            aiSummaryService.streamSummary(report(30.0, 20.5), "UTC", "Cache City G", collect(first));
+            aiSummaryService.streamSummary(report(30.0, 20.5), "UTC", "Cache City G", collect(second));
+            final var blocking = CompletableFuture.supplyAsync(
+                    () -> aiSummaryService.summarize(report(30.0, 20.5), "UTC", "Cache City G"));
+            release.countDown();
+
+            assertThat(first.get()).isEqualTo("Windy later.");
+            assertThat(second.get()).isEqualTo("Windy later.");
+            assertThat(blocking.get()).isEqualTo("Windy later.");
+            assertThat(streams.get()).isEqualTo(1);
+            verify(model, never()).generate(anyString());
+        } finally {
+            ReflectionTestUtils.setField(aiSummaryService, "streamingModel", original);
+        }
+    }
+
+    private static StreamingResponseHandler<AiMessage> collect(CompletableFuture<String> result) {
+        final var text = new StringBuilder();
+        return new StreamingResponseHandler<>() {
+            @Override
+            public void onNext(String token) {
+                text.append(token);
+            }
+
+            @Override
+            public void onComplete(Response<AiMessage> response) {
+                result.complete(text.toString());
+            }
+
+            @Override
+            public void onError(Throwable error) {
+                result.completeExceptionally(error);
+            }
+        };
+    }
+
+    private double hits() {
+        return meterRegistry.get("ai.summary.cache").tag("result", "hit").counter().count();
+    }
+
+    private static WeatherReport report(double lat, double temperature) {
+        final var hourly = new WeatherReport.Hourly(
+                List.of("2023-01-01T00:00", "2023-01-01T01:00"),
+                List.of(temperature, 21.0),
+                List.of(0.0, 0.0),
+                List.of(5.0, 5.5),
+                List.of(65.0, 70.0)
+        );
+        return new WeatherReport(lat, -74.0060, "America/New_York", hourly);
+    }
+}
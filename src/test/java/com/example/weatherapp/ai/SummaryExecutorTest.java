@@ -0,0 +1,85 @@
+package com.example.weatherapp.ai;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class SummaryExecutorTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final SummaryExecutor executor =
+            new SummaryExecutor("virtual", 1, Duration.ZERO, Duration.ofMillis(200), registry);
+
+    @AfterEach
+    public void tearDown() {
+        executor.shutdown();
+    }
+
+    @Test
+    public void shouldReturnResultFromVirtualThread() {
+        final var virtual = executor.call(() -> Thread.currentThread().isVirtual());
+
+        assertThat(virtual).isTrue();
+    }
+
+    @Test
+    public void shouldRejectWhenAllSlotsAreTaken() throws Exception {
+        final var release = new CountDownLatch(1);
+        final var started = new CountDownLatch(1);
+        executor.execute(() -> {
+            started.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        started.await();
+
+        assertThatThrownBy(() -> executor.call(() -> "second")).isInstanceOf(SummaryBusyException.class);
+        assertThat(registry.counter("ai.summary.rejected").count()).isEqualTo(1.0);
+
+        release.countDown();
+        while (registry.get("ai.summary.inflight").gauge().value() > 0) {
+            Thread.sleep(10);
+        }
+        assertThat(executor.call(() -> "third")).isEqualTo("third");
+    }
+
+    @Test
+    public void shouldGiveUpAfterDeadline() {
+        assertThatThrownBy(() -> executor.call(() -> {
+            Thread.sleep(5_000);
+            return "late";
+        })).isInstanceOf(IllegalStateException.class).hasMessageContaining("deadline");
+    }
+
+    @Test
+    public void abandonedCallsShouldAlwaysReturnTheirSlot() throws Exception {
+        // a zero deadline abandons most calls before their virtual thread has even started
+        final var impatientRegistry = new SimpleMeterRegistry();
+        final var impatient = new SummaryExecutor("virtual", 1, Duration.ofSeconds(2), Duration.ZERO, impatientRegistry);
+        try {
+            for (int i = 0; i < 100; i++) {
+                try {
+                    impatient.call(() -> "quick");
+                } catch (IllegalStateException e) {
+                    // deadline exceeded; a lost slot would fail a later call with SummaryBusyException instead
+                }
+            }
+            final var inflight = impatientRegistry.get("ai.summary.inflight").gauge();
+            for (int i = 0; i < 200 && inflight.value() > 0; i++) {
+                Thread.sleep(10);
+            }
+            assertThat(inflight.value()).isZero();
+        } finally {
+            impatient.shutdown();
+        }
+    }
+}
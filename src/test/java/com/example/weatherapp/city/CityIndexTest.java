@@ -0,0 +1,94 @@
+package com.example.weatherapp.city;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class CityIndexTest {
+
+    private static final List<City> CITIES = List.of(
+            new City("New York", "US", 40.7128, -74.006, "New York"),
+            new City("Newark", "US", 40.7357, -74.1724, "New Jersey"),
+            new City("Paris", "FR", 48.8566, 2.3522, "Ile-de-France"),
+            new City("Springfield", "US", 39.7817, -89.6501, "Illinois"),
+            new City(null, "XX", 0.0, 0.0, null)
+    );
+
+    private final CityIndex index = CityIndex.build(CITIES);
+
+    @Test
+    public void shouldMatchSubstringsOfNamesAndStates() {
+        assertThat(names(index, "new")).containsExactly("New York", "Newark");
+        assertThat(names(index, "jersey")).containsExactly("Newark");
+        assertThat(names(index, "ingfiel")).containsExactly("Springfield");
+        assertThat(names(index, "ile-de")).containsExactly("Paris");
+    }
+
+    @Test
+    public void shouldMatchQueriesShorterThanATrigram() {
+        assertThat(names(index, "pa")).containsExactly("Paris");
+        assertThat(names(index, "k")).containsExactly("New York", "Newark");
+    }
+
+    @Test
+    public void shouldVerifyCandidatesSharingAllTrigrams() {
+        // every trigram of "ababa" occurs in "abab", the query itself does not
+        final var small = CityIndex.build(List.of(new City("Abab", "XX", 0.0, 0.0, null)));
+        assertThat(names(small, "ababa")).isEmpty();
+        assertThat(names(small, "bab")).containsExactly("Abab");
+        assertThat(names(index, "zzz")).isEmpty();
+    }
+
+    @Test
+    public void shouldIgnoreAccentsAndFoldSpecialLetters() {
+        final var accented = CityIndex.build(List.of(
+                new City("Zürich", "CH", 47.3769, 8.5417, null),
+                new City("Kraków", "PL", 50.0647, 19.945, "Małopolskie"),
+                new City("Großbeeren", "DE", 52.3547, 13.3094, null)
+        ));
+        assertThat(names(accented, CityIndex.normalize("ZURICH"))).containsExactly("Zürich");
+        assertThat(names(accented, CityIndex.normalize("krakow"))).containsExactly("Kraków");
+        assertThat(names(accented, CityIndex.normalize("malopol"))).containsExactly("Kraków");
+        assertThat(names(accented, CityIndex.normalize("grossb"))).containsExactly("Großbeeren");
+        assertThat(CityIndex.normalize("São Paulo")).isEqualTo("sao paulo");
+    }
+
+    @Test
+    public void precomputedShortQueriesShouldMatchAFullSearch() {
+        for (final var q : List.of("n", "e", "ne", "k", "ew", "is", "new", "ar", "-d", "zz")) {
+            final var top = new TopK(index, q, ShortQueries.MAX_LIMIT);
+            index.forEachMatch(q, top::offer);
+            assertThat(index.shortQueries().get(q, ShortQueries.MAX_LIMIT)).as(q).isEqualTo(top.suggestions());
+        }
+        assertThat(index.shortQueries().get("n", 1)).hasSize(1);
+        assertThat(index.shortQueries().get("n", ShortQueries.MAX_LIMIT + 1)).isNull();
+    }
+
+    @Test
+    public void rowsWithTheSameSuggestionShouldAllBeIndexed() {
+        final var twins = CityIndex.build(List.of(
+                new City("Paris", "FR", 48.8566, 2.3522, null),
+                new City("Paris", "FR", 48.8566, 2.3522, "Ile-de-France")
+        ));
+
+        assertThat(twins.size()).isEqualTo(2);
+        assertThat(twins.nearest(48.85, 2.35, 5)).extracting(c -> c.city().state())
+                .containsExactlyInAnyOrder(null, "Ile-de-France");
+        assertThat(names(twins, "ile")).containsExactly("Paris");
+        assertThat(twins.duplicateGroup(0)).isEqualTo(twins.duplicateGroup(1)).isNotNegative();
+    }
+
+    @Test
+    public void emptyIndexShouldMatchNothing() {
+        assertThat(names(CityIndex.EMPTY, "new")).isEmpty();
+    }
+
+    private static List<String> names(CityIndex index, String q) {
+        final var result = new ArrayList<String>();
+        index.forEachMatch(q, id -> result.add(index.city(id).name()));
+        return result;
+    }
+}
@@ -0,0 +1,77 @@
+package com.example.weatherapp.city;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.startsWith;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "management.endpoints.web.exposure.include=health,cities")
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+public class CityReloadIntegrationTest {
+
+    @TempDir
+    static Path dir;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private CitySearchService citySearchService;
+
+    @DynamicPropertySource
+    static void citiesPath(DynamicPropertyRegistry registry) throws IOException {
+        write("""
+                [{"name": "Paris", "country": "FR", "lat": 48.8566, "lon": 2.3522}]
+                """);
+        registry.add("cities.path", () -> dir.resolve("cities.json").toString());
+    }
+
+    @Test
+    public void reloadShouldSwapInTheChangedDatasetAndKeepItOnFailure() throws Exception {
+        assertThat(citySearchService.searchSuggestions("par", 10)).containsExactly("Paris FR (48.8566,2.3522)");
+        assertThat(citySearchService.source()).startsWith("file:");
+
+        write("""
+                [{"name": "Paris", "country": "FR", "lat": 48.8566, "lon": 2.3522},
+                 {"name": "Parma", "country": "IT", "lat": 44.8015, "lon": 10.3279}]
+                """);
+        mockMvc.perform(post("/actuator/cities"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.cities", is(2)))
+                .andExpect(jsonPath("$.source", startsWith("file:")));
+
+        assertThat(citySearchService.searchSuggestions("par", 10)).hasSize(2);
+
+        write("[{ not json");
+        mockMvc.perform(post("/actuator/cities"))
+                .andExpect(status().isInternalServerError());
+
+        assertThat(citySearchService.searchSuggestions("par", 10)).hasSize(2);
+        mockMvc.perform(get("/actuator/cities"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.cities", is(2)))
+                .andExpect(jsonPath("$.lastReload.cities", is(2)));
+    }
+
+    private static void write(String json) throws IOException {
+        Files.writeString(dir.resolve("cities.json"), json);
+    }
+}
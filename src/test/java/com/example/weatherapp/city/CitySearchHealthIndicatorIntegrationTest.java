@@ -0,0 +1,53 @@
+package com.example.weatherapp.city;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.health.Status;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "cities.warmup.enabled=true")
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+public class CitySearchHealthIndicatorIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private CitySearchService citySearchService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    public void readinessShouldBeUpOnceTheIndexIsBuilt() throws Exception {
+        citySearchService.warmUp();
+
+        assertThat(citySearchService.isLoaded()).isTrue();
+        assertThat(meterRegistry.get("cities.load").timer().count()).isEqualTo(1L);
+        mockMvc.perform(get("/actuator/health/readiness"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status", is("UP")));
+    }
+
+    @Test
+    public void shouldBeOutOfServiceWhileWarmUpIsPending() {
+        final var pending = mock(CitySearchService.class);
+        when(pending.isLoaded()).thenReturn(false);
+
+        assertThat(new CitySearchHealthIndicator(pending, true).health().getStatus()).isEqualTo(Status.OUT_OF_SERVICE);
+        assertThat(new CitySearchHealthIndicator(pending, false).health().getStatus()).isEqualTo(Status.UP);
+    }
+}
@@ -0,0 +1,71 @@
+package com.example.weatherapp.city;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class CitySearchMetricsTest {
+
+    @Test
+    public void shouldRecordLatencyCandidatesAndResultsPerQuery() {
+        final var registry = new SimpleMeterRegistry();
+        final var service = CitySearchService.of(registry, List.of(
+                new City("Paris", "FR", 48.8566, 2.3522, null),
+                new City("Parisot", "FR", 44.2644, 1.8594, null),
+                new City("Berlin", "DE", 52.52, 13.405, null)
+        ), 0);
+
+        final var results = service.searchSuggestions("pari", 10);
+
+        assertThat(results).hasSize(2);
+        assertThat(registry.get("cities.search").timer().count()).isEqualTo(1L);
+        assertThat(registry.get("cities.search.candidates").summary().totalAmount()).isEqualTo(2.0);
+        assertThat(registry.get("cities.search.results").summary().totalAmount()).isEqualTo(2.0);
+    }
+
+    @Test
+    public void shouldAdmitLongerQueriesToTheResultCacheOnTheirSecondMiss() {
+        final var registry = new SimpleMeterRegistry();
+        final var service = CitySearchService.of(registry, List.of(
+                new City("Paris", "FR", 48.8566, 2.3522, null),
+                new City("Parisot", "FR", 44.2644, 1.8594, null)
+        ), 10);
+
+        final var first = service.searchSuggestions("pari", 10);
+        service.searchSuggestions(" PARI ", 10);
+        final var third = service.searchSuggestions("pari", 10);
+        service.searchSuggestions("pari", 1);
+
+        assertThat(third).isEqualTo(first);
+        assertThat(lookups(registry, "lru", "hit")).isEqualTo(1.0);
+        assertThat(lookups(registry, "lru", "miss")).isEqualTo(3.0);
+        assertThat(registry.get("cities.search.candidates").summary().count()).isEqualTo(3L);
+        assertThat(registry.get("cities.search").timer().count()).isEqualTo(4L);
+    }
+
+    @Test
+    public void shouldAnswerShortQueriesFromPrecomputedResults() {
+        final var registry = new SimpleMeterRegistry();
+        final var service = CitySearchService.of(registry, List.of(
+                new City("Paris", "FR", 48.8566, 2.3522, null),
+                new City("Parma", "IT", 44.8015, 10.3279, null),
+                new City("Saint-Lary", "FR", 42.8167, 0.3167, "Hautes-Pyrénées")
+        ), 0);
+
+        assertThat(service.searchSuggestions("par", 10))
+                .containsExactly("Paris FR (48.8566,2.3522)", "Parma IT (44.8015,10.3279)");
+        assertThat(service.searchSuggestions("AR", 1)).containsExactly("Paris FR (48.8566,2.3522)");
+        assertThat(service.searchSuggestions("né", 10)).containsExactly("Saint-Lary FR (42.8167,0.3167)");
+        assertThat(service.searchSuggestions("zz", 10)).isEmpty();
+
+        assertThat(lookups(registry, "precomputed", "hit")).isEqualTo(4.0);
+        assertThat(registry.find("cities.search.candidates").summary().count()).isZero();
+    }
+
+    private static double lookups(SimpleMeterRegistry registry, String tier, String result) {
+        return registry.get("cities.search.cache").tag("tier", tier).tag("result", result).counter().count();
+    }
+}
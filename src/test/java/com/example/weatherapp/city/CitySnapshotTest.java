@@ -0,0 +1,60 @@
+package com.example.weatherapp.city;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class CitySnapshotTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    public void shouldRoundTripCitiesThroughTheMappedFile() throws IOException {
+        final var cities = List.of(
+                new City("Zürich", "CH", 47.3769, 8.5417, "Zürich"),
+                new City("New York", "US", 40.7128, -74.006, null, 8_336_817L),
+                new City(null, null, null, null, null)
+        );
+        final var file = dir.resolve("cities.bin");
+
+        CitySnapshot.write(cities, file);
+        final var snapshot = CitySnapshot.map(file);
+
+        assertThat(snapshot).containsExactlyElementsOf(cities);
+        assertThat(snapshot.lat(0)).isEqualTo(47.3769);
+        assertThat(snapshot.lon(2)).isNaN();
+        assertThat(snapshot.get(1).population()).isEqualTo(8_336_817L);
+        assertThat(snapshot.get(0).population()).isNull();
+    }
+
+    @Test
+    public void indexBuiltFromSnapshotShouldSearchLikeTheParsedList() throws IOException {
+        final var cities = List.of(
+                new City("Paris", "FR", 48.8566, 2.3522, "Ile-de-France"),
+                new City("Paris", "US", 33.6609, -95.5555, "Texas")
+        );
+        final var file = dir.resolve("cities.bin");
+        CitySnapshot.write(cities, file);
+
+        final var index = CityIndex.build(CitySnapshot.map(file));
+        final var top = new TopK(index, "texas", 5);
+        index.forEachMatch("texas", top::offer);
+
+        assertThat(top.suggestions()).containsExactly("Paris US (33.6609,-95.5555)");
+    }
+
+    @Test
+    public void shouldRejectFilesThatAreNotSnapshots() throws IOException {
+        final var file = Files.writeString(dir.resolve("cities.bin"), "[{\"name\":\"Paris\"}]");
+
+        assertThatThrownBy(() -> CitySnapshot.map(file)).isInstanceOf(IOException.class);
+    }
+}
@@ -0,0 +1,62 @@
+package com.example.weatherapp.city;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class FuzzyIndexTest {
+
+    private static final List<City> CITIES = List.of(
+            new City("Zürich", "CH", 47.3769, 8.5417, null),
+            new City("München", "DE", 48.1351, 11.582, "Bavaria"),
+            new City("Munich", "US", 47.0, -97.0, "North Dakota"),
+            new City("Paris", "FR", 48.8566, 2.3522, "Ile-de-France"),
+            new City("Parma", "IT", 44.8015, 10.3279, null),
+            new City("Springfield", "US", 39.7817, -89.6501, "Illinois")
+    );
+
+    private final CityIndex index = CityIndex.build(CITIES);
+
+    @Test
+    public void shouldMatchNamesWithTypos() {
+        assertThat(fuzzy("zurih")).containsExactly("Zürich CH (47.3769,8.5417)");
+        assertThat(fuzzy("muenchen")).first().isEqualTo("München DE (48.1351,11.582)");
+        assertThat(fuzzy("pairs")).containsExactly("Paris FR (48.8566,2.3522)");
+        assertThat(fuzzy("sprnigfeild")).containsExactly("Springfield US (39.7817,-89.6501)");
+    }
+
+    @Test
+    public void shouldRankCloserNamesFirst() {
+        // "munich" is one edit from "munchen" clipped to "muniche", "munchen" is two
+        assertThat(fuzzy("munichen")).containsExactly(
+                "Munich US (47.0,-97.0)", "München DE (48.1351,11.582)");
+    }
+
+    @Test
+    public void shouldNotTolerateTyposInShortQueries() {
+        assertThat(fuzzy("prs")).isEmpty();
+        assertThat(FuzzyIndex.maxDistance(3)).isZero();
+        assertThat(FuzzyIndex.maxDistance(5)).isEqualTo(1);
+        assertThat(FuzzyIndex.maxDistance(6)).isEqualTo(2);
+    }
+
+    @Test
+    public void shouldRejectCandidatesBeyondTheDistanceBound() {
+        assertThat(fuzzy("lyon")).isEmpty();
+        assertThat(fuzzy("parxyz")).isEmpty();
+    }
+
+    @Test
+    public void distanceShouldCountTranspositionsAsOneEdit() {
+        final var rows = new int[3][FuzzyIndex.PREFIX + 1];
+        assertThat(FuzzyIndex.distance("pairs", 5, "paris", 5, 2, rows)).isEqualTo(1);
+        assertThat(FuzzyIndex.distance("zurih", 5, "zurich", 6, 2, rows)).isEqualTo(1);
+        assertThat(FuzzyIndex.distance("abc", 3, "xyz", 3, 1, rows)).isEqualTo(2);
+    }
+
+    private List<String> fuzzy(String query) {
+        return index.fuzzySuggestions(CityIndex.normalize(query), 10);
+    }
+}
@@ -0,0 +1,58 @@
+package com.example.weatherapp.city;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+public class SpatialIndexTest {
+
+    @Test
+    public void shouldMatchBruteForceHaversineRanking() {
+        final var random = new Random(1);
+        final var n = 5_000;
+        final var lat = new double[n];
+        final var lon = new double[n];
+        for (int i = 0; i < n; i++) {
+            lat[i] = random.nextDouble() * 180 - 90;
+            lon[i] = random.nextDouble() * 360 - 180;
+        }
+        final var index = SpatialIndex.build(lat, lon);
+
+        // includes both poles and the antimeridian
+        final var queries = List.of(new double[]{89.9, 0}, new double[]{-89.9, 45}, new double[]{0, 179.99},
+                new double[]{48.85, 2.35}, new double[]{-33.87, 151.21});
+        for (final var q : queries) {
+            final var expected = IntStream.range(0, n).boxed()
+                    .sorted(Comparator.comparingDouble(i -> SpatialIndex.haversineKm(q[0], q[1], lat[i], lon[i])))
+                    .limit(10)
+                    .mapToDouble(i -> SpatialIndex.haversineKm(q[0], q[1], lat[i], lon[i]))
+                    .toArray();
+
+            final var nearest = index.nearest(q[0], q[1], 10);
+
+            assertThat(nearest.distancesKm()).containsExactly(expected, within(1e-9));
+        }
+    }
+
+    @Test
+    public void shouldSkipCitiesWithoutCoordinates() {
+        final var index = CityIndex.build(List.of(
+                new City("Paris", "FR", 48.8566, 2.3522, null),
+                new City("Nowhere", "XX", null, null, null),
+                new City("Versailles", "FR", 48.8049, 2.1204, null),
+                new City("Berlin", "DE", 52.52, 13.405, null)
+        ));
+
+        final var nearest = index.nearest(48.86, 2.34, 5);
+
+        assertThat(nearest).extracting(c -> c.city().name()).containsExactly("Paris", "Versailles", "Berlin");
+        assertThat(nearest.getFirst().distanceKm()).isLessThan(2.0);
+        assertThat(nearest.get(2).distanceKm()).isCloseTo(878, within(5.0));
+    }
+}
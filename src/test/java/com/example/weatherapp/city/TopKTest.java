@@ -0,0 +1,80 @@
+package com.example.weatherapp.city;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class TopKTest {
+
+    @Test
+    public void shouldKeepShortPrefixMatchesThatAppearLateInTheFile() {
+        final var cities = new ArrayList<City>();
+        for (int i = 0; i < 300; i++) {
+            cities.add(new City("Xpar" + i, "XX", 0.0, (double) i, null));
+        }
+        cities.add(new City("Paris", "FR", 48.8566, 2.3522, null));
+
+        assertThat(top(CityIndex.build(cities), "par", 2))
+                .containsExactly("Paris FR (48.8566,2.3522)", "Xpar0 XX (0.0,0.0)");
+    }
+
+    @Test
+    public void shouldRankPrefixThenLengthThenName() {
+        final var index = CityIndex.build(List.of(
+                new City("Newark", "US", 1.0, 1.0, null),
+                new City("Bonnew", "XX", 2.0, 2.0, null),
+                new City("New York", "US", 3.0, 3.0, null),
+                new City("Newry", "GB", 4.0, 4.0, null),
+                new City("Newa", "XX", 5.0, 5.0, null)
+        ));
+
+        assertThat(top(index, "new", 10)).containsExactly(
+                "Newa XX (5.0,5.0)",
+                "Newry GB (4.0,4.0)",
+                "Newark US (1.0,1.0)",
+                "New York US (3.0,3.0)",
+                "Bonnew XX (2.0,2.0)");
+        assertThat(top(index, "new", 2)).containsExactly("Newa XX (5.0,5.0)", "Newry GB (4.0,4.0)");
+    }
+
+    @Test
+    public void shouldRankBiggerCitiesFirstAmongEquallyGoodMatches() {
+        final var index = CityIndex.build(List.of(
+                new City("Paris", "US", 33.6609, -95.5555, "Texas", 24_171L),
+                new City("Parisot", "FR", 44.2644, 1.8594, null),
+                new City("Paris", "FR", 48.8566, 2.3522, null, 2_102_650L),
+                new City("Pari", "XX", 1.0, 1.0, null)
+        ));
+
+        assertThat(top(index, "pari", 10)).containsExactly(
+                "Paris FR (48.8566,2.3522)",
+                "Paris US (33.6609,-95.5555)",
+                "Pari XX (1.0,1.0)",
+                "Parisot FR (44.2644,1.8594)");
+        assertThat(top(index, "aris", 1)).containsExactly("Paris FR (48.8566,2.3522)");
+    }
+
+    @Test
+    public void shouldShowDuplicateSuggestionsOnceForTheirBestMatch() {
+        final var cities = new ArrayList<City>();
+        cities.add(new City("Paris", "FR", 48.8566, 2.3522, null));
+        cities.add(new City("Paris", "FR", 48.8566, 2.3522, "Ile-de-France", 2_102_650L));
+        cities.add(new City("Parisot", "FR", 44.2644, 1.8594, null));
+        for (int i = 0; i < 5; i++) cities.add(new City("Pari", "XX", 1.0, 1.0, null));
+        final var index = CityIndex.build(cities);
+
+        assertThat(top(index, "pari", 3)).containsExactly(
+                "Paris FR (48.8566,2.3522)", "Pari XX (1.0,1.0)", "Parisot FR (44.2644,1.8594)");
+        assertThat(top(index, "ile", 10)).containsExactly("Paris FR (48.8566,2.3522)");
+        assertThat(index.shortQueries().get("pa", 3)).isEqualTo(top(index, "pa", 3));
+    }
+
+    private static List<String> top(CityIndex index, String q, int k) {
+        final var top = new TopK(index, q, k);
+        index.forEachMatch(q, top::offer);
+        return top.suggestions();
+    }
+}
@@ -0,0 +1,101 @@
+package com.example.weatherapp.weather;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestClient;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+@ActiveProfiles("test")
+public class ForecastServiceIntegrationTest {
+
+    private static final OpenMeteoStub STUB = OpenMeteoStub.start();
+
+    @DynamicPropertySource
+    static void openMeteo(DynamicPropertyRegistry registry) {
+        registry.add("weather.open-meteo.base-url", STUB::baseUrl);
+    }
+
+    @Autowired
+    private ForecastService forecastService;
+
+    @Test
+    public void concurrentRequestsForOneGridCellShouldShareOneUpstreamCall() {
+        final var before = STUB.calls();
+        final var requests = new ArrayList<CompletableFuture<WeatherReport>>();
+        for (int i = 0; i < 20; i++) {
+            // all within the same 0.1 degree cell
+            final var jitter = i * 0.001;
+            requests.add(CompletableFuture.supplyAsync(() -> forecastService.forecast(10.01 + jitter, 20.01 - jitter)));
+        }
+
+        final var reports = requests.stream().map(CompletableFuture::join).toList();
+
+        assertThat(STUB.calls() - before).isEqualTo(1);
+        assertThat(reports).allSatisfy(r -> assertThat(r.hourly().time()).hasSize(2));
+        assertThat(reports).allSatisfy(r -> assertThat(r.timezone()).isEqualTo("America/New_York"));
+    }
+
+    @Test
+    public void cachedCellShouldNotBeFetchedAgain() {
+        forecastService.forecast(-33.86, 151.21);
+        final var before = STUB.calls();
+
+        forecastService.forecast(-33.87, 151.20);
+
+        assertThat(STUB.calls()).isEqualTo(before);
+    }
+
+    @Test
+    public void differentCellsShouldBeFetchedSeparately() {
+        final var before = STUB.calls();
+
+        forecastService.forecast(51.5, -0.12);
+        forecastService.forecast(48.85, 2.35);
+
+        assertThat(STUB.calls() - before).isEqualTo(2);
+    }
+
+    @Test
+    public void slowUpstreamShouldFailEveryWaiterWithinTheTimeout() {
+        // the stub answers after 200 ms
+        final var impatient = new ForecastService(RestClient.builder(), STUB.baseUrl(), 0.1, Duration.ofHours(1), 3,
+                10_000, Duration.ofMillis(50), Duration.ofMillis(50));
+        final var requests = new ArrayList<CompletableFuture<WeatherReport>>();
+        for (int i = 0; i < 5; i++) {
+            requests.add(CompletableFuture.supplyAsync(() -> impatient.forecast(-12.05, -77.04)));
+        }
+
+        for (final var request : requests) {
+            assertThatThrownBy(request::join)
+                    .isInstanceOf(CompletionException.class)
+                    .hasCauseInstanceOf(ResourceAccessException.class);
+        }
+    }
+
+    @Test
+    public void cacheShouldStayWithinMaxEntriesWhenEveryEntryIsFresh() {
+        final var small = new ForecastService(RestClient.builder(), STUB.baseUrl(), 0.1, Duration.ofHours(1), 3,
+                3, Duration.ofSeconds(2), Duration.ofSeconds(5));
+
+        for (int i = 0; i < 6; i++) {
+            small.forecast(60.0 + i, 10.0);
+            assertThat(small.size()).isLessThanOrEqualTo(3);
+        }
+        final var before = STUB.calls();
+        small.forecast(65.0, 10.0);
+        assertThat(STUB.calls()).isEqualTo(before);
+    }
+}
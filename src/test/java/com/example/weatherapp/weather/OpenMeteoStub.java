@@ -0,0 +1,74 @@
+package com.example.weatherapp.weather;
+
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Local stand-in for api.open-meteo.com: answers every /v1/forecast call with a fixed two-hour forecast
+ * after a short delay, and counts the calls.
+ */
+public final class OpenMeteoStub {
+
+    public static final String FORECAST_JSON = """
+            {
+              "latitude": 40.7,
+              "longitude": -74.0,
+              "timezone": "America/New_York",
+              "hourly_units": {"time": "iso8601"},
+              "hourly": {
+                "time": ["2023-01-01T00:00", "2023-01-01T01:00"],
+                "temperature_2m": [20.5, 21.0],
+                "precipitation": [0.0, 0.0],
+                "wind_speed_10m": [5.0, 5.5],
+                "relative_humidity_2m": [65.0, 70.0]
+              }
+            }""";
+
+    private final HttpServer server;
+    private final AtomicInteger calls = new AtomicInteger();
+
+    private OpenMeteoStub(HttpServer server) {
+        this.server = server;
+    }
+
+    public static OpenMeteoStub start() {
+        try {
+            final var server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+            final var stub = new OpenMeteoStub(server);
+            server.createContext("/v1/forecast", exchange -> {
+                stub.calls.incrementAndGet();
+                try {
+                    Thread.sleep(200);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                final var body = FORECAST_JSON.getBytes(UTF_8);
+                exchange.getResponseHeaders().add("Content-Type", "application/json");
+                exchange.sendResponseHeaders(200, body.length);
+                try (final var os = exchange.getResponseBody()) {
+                    os.write(body);
+                }
+            });
+            server.setExecutor(Executors.newCachedThreadPool());
+            server.start();
+            return stub;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public String baseUrl() {
+        return "http://localhost:" + server.getAddress().getPort();
+    }
+
+    public int calls() {
+        return calls.get();
+    }
+}
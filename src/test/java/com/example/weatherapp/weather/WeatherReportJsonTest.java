@@ -0,0 +1,80 @@
+package com.example.weatherapp.weather;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.exc.InvalidFormatException;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class WeatherReportJsonTest {
+
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    @Test
+    public void shouldReadOpenMeteoHourlyIntoPrimitiveColumns() throws Exception {
+        final var report = mapper.readValue(OpenMeteoStub.FORECAST_JSON, WeatherReport.class);
+
+        final var hourly = report.hourly();
+        assertThat(hourly.size()).isEqualTo(2);
+        assertThat(hourly.time()).containsExactly("2023-01-01T00:00", "2023-01-01T01:00");
+        assertThat(hourly.epochSecond(1) - hourly.epochSecond(0)).isEqualTo(3600L);
+        assertThat(hourly.has(WeatherReport.Hourly.Series.TEMPERATURE_2M)).isTrue();
+    }
+
+    @Test
+    public void shouldWriteTheSameJsonShape() throws Exception {
+        final var report = new WeatherReport(40.7128, -74.006, "America/New_York", new WeatherReport.Hourly(
+                List.of("2023-01-01T00:00", "2023-01-01T01:00"),
+                Arrays.asList(20.5, null),
+                null,
+                List.of(5.0, 5.5),
+                List.of(65.0, 70.0)
+        ));
+
+        final var json = mapper.writeValueAsString(report);
+
+        assertThat(json).isEqualTo("{\"latitude\":40.7128,\"longitude\":-74.006,\"timezone\":\"America/New_York\","
+                + "\"hourly\":{\"time\":[\"2023-01-01T00:00\",\"2023-01-01T01:00\"],\"temperature_2m\":[20.5,null],"
+                + "\"precipitation\":null,\"wind_speed_10m\":[5.0,5.5],\"relative_humidity_2m\":[65.0,70.0]}}");
+        assertThat(mapper.readValue(json, WeatherReport.class)).isEqualTo(report);
+    }
+
+    @Test
+    public void shouldMapNullsToNaNAndSkipUnknownSeries() throws Exception {
+        final var json = "{\"hourly\":{\"time\":[\"2023-01-01T00:00\"],\"temperature_2m\":[null],"
+                + "\"cloud_cover\":[40],\"relative_humidity_2m\":[65]}}";
+
+        final var hourly = mapper.readValue(json, WeatherReport.class).hourly();
+
+        assertThat(hourly.value(WeatherReport.Hourly.Series.TEMPERATURE_2M, 0)).isNaN();
+        assertThat(hourly.value(WeatherReport.Hourly.Series.RELATIVE_HUMIDITY_2M, 0)).isEqualTo(65.0);
+        assertThat(hourly.has(WeatherReport.Hourly.Series.PRECIPITATION)).isFalse();
+    }
+
+    @Test
+    public void shouldRoundTripOffsetsSecondsAndEpochTimes() throws Exception {
+        final var offsets = "{\"time\":[\"2023-01-01T00:00:30\",\"2023-01-01T01:00+01:00\",\"2023-01-01T02:00Z\",null]}";
+        final var epochs = "{\"time\":[1672531200,1672534800]}";
+
+        final var hourly = mapper.readValue(offsets, WeatherReport.Hourly.class);
+        final var unix = mapper.readValue(epochs, WeatherReport.Hourly.class);
+
+        assertThat(hourly.time()).containsExactly("2023-01-01T00:00:30", "2023-01-01T01:00+01:00", "2023-01-01T02:00Z", null);
+        assertThat(hourly.epochSecond(1) - hourly.epochSecond(0)).isEqualTo(3570L);
+        assertThat(mapper.readTree(mapper.writeValueAsString(hourly)).get("time")).isEqualTo(mapper.readTree(offsets).get("time"));
+        assertThat(unix.epochSecond(0)).isEqualTo(1672531200L);
+        assertThat(mapper.readTree(mapper.writeValueAsString(unix)).get("time")).isEqualTo(mapper.readTree(epochs).get("time"));
+        assertThat(mapper.readValue(mapper.writeValueAsString(unix), WeatherReport.Hourly.class)).isEqualTo(unix);
+    }
+
+    @Test
+    public void shouldRejectUnparseableTimes() {
+        assertThatThrownBy(() -> mapper.readValue("{\"time\":[\"2023-01-01T00:00\",\"tomorrow\"]}", WeatherReport.Hourly.class))
+                .isInstanceOf(InvalidFormatException.class)
+                .hasMessageContaining("tomorrow");
+    }
+}
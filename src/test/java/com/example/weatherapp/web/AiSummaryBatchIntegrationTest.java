@@ -0,0 +1,126 @@
+package com.example.weatherapp.web;
+
+import com.example.weatherapp.ai.AiSummaryService;
+import com.example.weatherapp.ai.SummaryRequest;
+import com.example.weatherapp.weather.WeatherReport;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.langchain4j.model.chat.ChatLanguageModel;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.Collections;
+import java.util.List;
+
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.startsWith;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "ai.summary.batch.max-entries=3")
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+public class AiSummaryBatchIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private AiSummaryService aiSummaryService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private ChatLanguageModel model;
+    private Object geminiModel;
+
+    @BeforeEach
+    public void setup() {
+        model = mock(ChatLanguageModel.class);
+        when(model.generate(anyString())).thenAnswer(inv -> "Summary for " + city(inv.getArgument(0)));
+        doThrow(new RuntimeException("quota")).when(model).generate(contains("Batch Failing"));
+        geminiModel = ReflectionTestUtils.getField(aiSummaryService, "chatModel");
+        ReflectionTestUtils.setField(aiSummaryService, "chatModel", model);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        ReflectionTestUtils.setField(aiSummaryService, "chatModel", geminiModel);
+    }
+
+    @Test
+    public void batchShouldReturnResultsInOrderAndShareIdenticalEntries() throws Exception {
+        final var entries = List.of(
+                new SummaryRequest(report(48.85), "Europe/Paris", "Batch Paris"),
+                new SummaryRequest(report(52.52), "Europe/Berlin", "Batch Failing"),
+                new SummaryRequest(report(48.85), "Europe/Paris", "Batch Paris")
+        );
+
+        mockMvc.perform(post("/api/ai-summary/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(entries)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.results.length()", is(3)))
+                .andExpect(jsonPath("$.results[0].status", is("ok")))
+                .andExpect(jsonPath("$.results[0].summary", is("Summary for Batch Paris")))
+                .andExpect(jsonPath("$.results[1].status", is("unavailable")))
+                .andExpect(jsonPath("$.results[1].summary", startsWith("AI summary unavailable at the moment.")))
+                .andExpect(jsonPath("$.results[2].summary", is("Summary for Batch Paris")));
+
+        verify(model, times(1)).generate(contains("Batch Paris"));
+    }
+
+    @Test
+    public void batchShouldRejectOversizedRequests() throws Exception {
+        final var entries = Collections.nCopies(4, new SummaryRequest(report(1.0), "UTC", "Batch Big"));
+
+        mockMvc.perform(post("/api/ai-summary/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(entries)))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(model);
+    }
+
+    @Test
+    public void batchShouldRejectEntriesWithoutAReport() throws Exception {
+        mockMvc.perform(post("/api/ai-summary/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("[" + objectMapper.writeValueAsString(new SummaryRequest(report(1.0), "UTC", "Batch Ok")) + ", null]"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error", is("Entry 1 has no report.")));
+
+        mockMvc.perform(post("/api/ai-summary/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("[{\"timezone\": \"UTC\", \"city\": \"Batch Empty\"}]"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error", is("Entry 0 has no report.")));
+
+        verifyNoInteractions(model);
+    }
+
+    private static String city(String prompt) {
+        return prompt.contains("Batch Paris") ? "Batch Paris" : "?";
+    }
+
+    private static WeatherReport report(double lat) {
+        return new WeatherReport(lat, 2.35, "UTC", new WeatherReport.Hourly(
+                List.of("2023-01-01T00:00", "2023-01-01T01:00"),
+                List.of(20.5, 21.0),
+                List.of(0.0, 0.0),
+                List.of(5.0, 5.5),
+                List.of(65.0, 70.0)
+        ));
+    }
+}
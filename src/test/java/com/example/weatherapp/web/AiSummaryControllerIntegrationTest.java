@@ -1,6 +1,7 @@
 package com.example.weatherapp.web;
 
 import com.example.weatherapp.ai.AiSummaryService;
+import com.example.weatherapp.ai.SummaryBusyException;
 import com.example.weatherapp.weather.WeatherReport;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
@@ -21,8 +22,10 @@ import java.util.List;
 import static org.hamcrest.Matchers.is;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -87,5 +90,33 @@ public class AiSummaryControllerIntegrationTest {
                 .andExpect(jsonPath("$.model", is("gemini")))
                 .andExpect(jsonPath("$.configured", is(true)));
     }
-    
+
+    @Test
+    public void summarizeShouldReturn503WhenBusy() throws Exception {
+        WeatherReport report = new WeatherReport(40.7128, -74.0060, "America/New_York", null);
+        when(aiSummaryService.summarize(any(WeatherReport.class), anyString(), anyString()))
+                .thenThrow(new SummaryBusyException(16));
+
+        mockMvc.perform(post("/api/ai-summary")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(report))
+                .param("timezone", "America/New_York")
+                .param("city", "New York"))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().exists("Retry-After"))
+                .andExpect(jsonPath("$.busy", is(true)));
+    }
+
+    @Test
+    public void summarizeShouldRejectUnparseableTimes() throws Exception {
+        mockMvc.perform(post("/api/ai-summary")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"hourly\": {\"time\": [\"2023-01-01T00:00\", \"tomorrow\"], \"temperature_2m\": [20.5, 21.0]}}")
+                .param("timezone", "America/New_York")
+                .param("city", "New York"))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(aiSummaryService);
+    }
+
 }
@@ -0,0 +1,102 @@
+package com.example.weatherapp.web;
+
+import dev.langchain4j.data.message.AiMessage;
+import dev.langchain4j.model.chat.StreamingChatLanguageModel;
+import dev.langchain4j.model.output.Response;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Primary;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+public class AiSummaryStreamIntegrationTest {
+
+    private static final String WEATHER_REPORT_JSON = """
+            {
+              "latitude": 40.7128,
+              "longitude": -74.0060,
+              "timezone": "America/New_York",
+              "hourly": {
+                "time": ["2023-01-01T00:00", "2023-01-01T01:00"],
+                "temperature_2m": [20.5, 21.0],
+                "precipitation": [0.0, 0.0],
+                "wind_speed_10m": [5.0, 5.5],
+                "relative_humidity_2m": [65.0, 70.0]
+              }
+            }""";
+
+    @TestConfiguration
+    static class TestConfig {
+        @Bean
+        @Primary
+        public StreamingChatLanguageModel fakeStreamingModel() {
+            // no network: replays fixed tokens, or fails for the "Failing City" prompt
+            return (messages, handler) -> {
+                if (messages.toString().contains("Failing City")) {
+                    handler.onError(new IllegalStateException("model overloaded"));
+                    return;
+                }
+                for (final var token : List.of("Sunny", " and", " mild.")) {
+                    handler.onNext(token);
+                }
+                handler.onComplete(Response.from(AiMessage.from("Sunny and mild.")));
+            };
+        }
+    }
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    public void streamShouldRelayTokensAsServerSentEvents() throws Exception {
+        final var result = mockMvc.perform(post("/api/ai-summary/stream")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.TEXT_EVENT_STREAM)
+                        .content(WEATHER_REPORT_JSON)
+                        .param("timezone", "America/New_York")
+                        .param("city", "Streaming City"))
+                .andExpect(status().isOk())
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        result.getAsyncResult(5_000);
+
+        final var body = result.getResponse().getContentAsString();
+        assertThat(body).containsSubsequence(
+                "event:token", "{\"text\":\"Sunny\"}",
+                "event:token", "{\"text\":\" and\"}",
+                "event:token", "{\"text\":\" mild.\"}",
+                "event:done", "\"configured\":true");
+    }
+
+    @Test
+    public void streamShouldReportModelFailuresAsAnErrorEvent() throws Exception {
+        final var result = mockMvc.perform(post("/api/ai-summary/stream")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.TEXT_EVENT_STREAM)
+                        .content(WEATHER_REPORT_JSON)
+                        .param("city", "Failing City"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        result.getAsyncResult(5_000);
+
+        assertThat(result.getResponse().getContentAsString())
+                .contains("event:error")
+                .contains("AI summary unavailable at the moment. Reason: model overloaded")
+                .doesNotContain("event:done");
+    }
+}
@@ -1,6 +1,8 @@
 package com.example.weatherapp.web;
 
+import com.example.weatherapp.city.City;
 import com.example.weatherapp.city.CitySearchService;
+import com.example.weatherapp.city.NearbyCity;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
@@ -17,10 +19,14 @@ import org.springframework.test.web.servlet.MockMvc;
 import java.util.Collections;
 import java.util.List;
 
+import static org.hamcrest.Matchers.containsString;
 import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.Matchers.is;
+import static org.mockito.ArgumentMatchers.anyDouble;
 import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -103,4 +109,92 @@ public class CitySearchControllerIntegrationTest {
                 .andExpect(jsonPath("$", hasSize(1)))
                 .andExpect(jsonPath("$[0]", is("New York US (40.7128,-74.006)")));
     }
+
+    @Test
+    public void searchShouldSendCacheHeadersAndAnswerMatchingEtagWithNotModified() throws Exception {
+        when(citySearchService.datasetVersion()).thenReturn("1f2e3d");
+        when(citySearchService.searchSuggestions("new", 10))
+                .thenReturn(List.of("New York US (40.7128,-74.006)"));
+
+        final var etag = mockMvc.perform(get("/api/cities/search")
+                        .param("q", "new"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Cache-Control", containsString("max-age=600")))
+                .andExpect(header().string("ETag", containsString("1f2e3d")))
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andReturn().getResponse().getHeader("ETag");
+
+        Mockito.clearInvocations(citySearchService);
+        mockMvc.perform(get("/api/cities/search")
+                        .param("q", "new")
+                        .header("If-None-Match", etag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", etag))
+                .andExpect(content().string(""));
+        verify(citySearchService, never()).searchSuggestions(anyString(), anyInt());
+    }
+
+    @Test
+    public void searchEtagShouldChangeWithTheDatasetVersion() throws Exception {
+        when(citySearchService.datasetVersion()).thenReturn("1f2e3d");
+        when(citySearchService.searchSuggestions(anyString(), anyInt())).thenReturn(List.of());
+        final var etag = mockMvc.perform(get("/api/cities/search").param("q", "new"))
+                .andReturn().getResponse().getHeader("ETag");
+
+        when(citySearchService.datasetVersion()).thenReturn("4c5b6a");
+        mockMvc.perform(get("/api/cities/search")
+                        .param("q", "new")
+                        .header("If-None-Match", etag))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", containsString("4c5b6a")));
+    }
+
+    @Test
+    public void searchShouldUseTypoToleranceWhenFuzzyIsSet() throws Exception {
+        when(citySearchService.searchFuzzy("zurih", 10))
+                .thenReturn(List.of("Zürich CH (47.3769,8.5417)"));
+
+        mockMvc.perform(get("/api/cities/search")
+                .param("q", "zurih")
+                .param("fuzzy", "true"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0]", is("Zürich CH (47.3769,8.5417)")));
+    }
+
+    @Test
+    public void nearestShouldReturnCitiesWithDistances() throws Exception {
+        when(citySearchService.nearest(48.86, 2.34, 2)).thenReturn(List.of(
+                new NearbyCity(new City("Paris", "FR", 48.8566, 2.3522, null), 0.9),
+                new NearbyCity(new City("Versailles", "FR", 48.8049, 2.1204, null), 17.2)
+        ));
+
+        mockMvc.perform(get("/api/cities/nearest")
+                .param("lat", "48.86")
+                .param("lon", "2.34")
+                .param("k", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[0].name", is("Paris")))
+                .andExpect(jsonPath("$[1].distanceKm", is(17.2)));
+    }
+
+    @Test
+    public void nearestShouldRejectInvalidCoordinates() throws Exception {
+        mockMvc.perform(get("/api/cities/nearest")
+                .param("lat", "91")
+                .param("lon", "0"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error", is("Invalid coordinates.")));
+    }
+
+    @Test
+    public void nearestShouldRejectNaNCoordinates() throws Exception {
+        mockMvc.perform(get("/api/cities/nearest")
+                .param("lat", "NaN")
+                .param("lon", "2.34"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error", is("Invalid coordinates.")));
+        verify(citySearchService, never()).nearest(anyDouble(), anyDouble(), anyInt());
+    }
 }
@@ -0,0 +1,72 @@
+package com.example.weatherapp.web;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class DailyGreetingTest {
+
+    private static final ZoneId ZONE = ZoneId.of("Europe/Berlin");
+
+    @Test
+    public void shouldRenderOncePerDay() {
+        final var clock = new MutableClock(Instant.parse("2024-03-30T12:00:00Z"));
+        final var greeting = new DailyGreeting(clock);
+
+        final var first = greeting.today();
+        clock.advance(Duration.ofHours(10));
+
+        assertThat(first.message()).isEqualTo("Welcome to Weather App, Traveler! Today is 2024-03-30.");
+        assertThat(first.date()).isEqualTo(LocalDate.of(2024, 3, 30));
+        assertThat(greeting.today()).isSameAs(first);
+    }
+
+    @Test
+    public void shouldRollOverAtMidnightInTheClockZone() {
+        // 22:59:59 UTC is 23:59:59 in Berlin
+        final var clock = new MutableClock(Instant.parse("2024-03-30T22:59:59Z"));
+        final var greeting = new DailyGreeting(clock);
+
+        final var before = greeting.today();
+        clock.advance(Duration.ofSeconds(1));
+        final var after = greeting.today();
+
+        assertThat(before.date()).isEqualTo(LocalDate.of(2024, 3, 30));
+        assertThat(after.date()).isEqualTo(LocalDate.of(2024, 3, 31));
+        assertThat(after.message()).endsWith("Today is 2024-03-31.");
+        assertThat(greeting.today()).isSameAs(after);
+    }
+
+    private static final class MutableClock extends Clock {
+        private Instant now;
+
+        MutableClock(Instant now) {
+            this.now = now;
+        }
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZONE;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
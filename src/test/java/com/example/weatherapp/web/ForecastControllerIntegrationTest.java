@@ -0,0 +1,64 @@
+package com.example.weatherapp.web;
+
+import com.example.weatherapp.weather.OpenMeteoStub;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+public class ForecastControllerIntegrationTest {
+
+    private static final OpenMeteoStub STUB = OpenMeteoStub.start();
+
+    @DynamicPropertySource
+    static void openMeteo(DynamicPropertyRegistry registry) {
+        registry.add("weather.open-meteo.base-url", STUB::baseUrl);
+    }
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    public void forecastShouldReturnTheOpenMeteoShape() throws Exception {
+        mockMvc.perform(get("/api/forecast")
+                .param("lat", "40.7128")
+                .param("lon", "-74.0060"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.timezone", is("America/New_York")))
+                .andExpect(jsonPath("$.hourly.time", hasSize(2)))
+                .andExpect(jsonPath("$.hourly.temperature_2m[1]", is(21.0)))
+                .andExpect(jsonPath("$.hourly.relative_humidity_2m[0]", is(65.0)));
+    }
+
+    @Test
+    public void forecastShouldRejectInvalidCoordinates() throws Exception {
+        mockMvc.perform(get("/api/forecast")
+                .param("lat", "91")
+                .param("lon", "0"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error", is("Invalid coordinates.")));
+    }
+
+    @Test
+    public void forecastShouldRejectNaNCoordinates() throws Exception {
+        mockMvc.perform(get("/api/forecast")
+                .param("lat", "NaN")
+                .param("lon", "0"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error", is("Invalid coordinates.")));
+    }
+}
@@ -33,7 +33,8 @@ public class ReportControllerIntegrationTest {
                 .andExpect(model().attributeExists("city"))
                 .andExpect(model().attribute("lat", 40.7128))
                 .andExpect(model().attribute("lon", -74.0060))
-                .andExpect(model().attribute("city", "New York"));
+                .andExpect(model().attribute("city", "New York"))
+                .andExpect(model().attributeDoesNotExist("reportJson"));
     }
 
     @Test
@@ -0,0 +1,87 @@
+package com.example.weatherapp.web;
+
+import com.example.weatherapp.ai.AiSummaryService;
+import com.example.weatherapp.weather.OpenMeteoStub;
+import com.example.weatherapp.weather.WeatherReport;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Primary;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest(properties = "report.server-side.enabled=true")
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+public class ReportServerSideIntegrationTest {
+
+    private static final OpenMeteoStub STUB = OpenMeteoStub.start();
+
+    @DynamicPropertySource
+    static void openMeteo(DynamicPropertyRegistry registry) {
+        registry.add("weather.open-meteo.base-url", STUB::baseUrl);
+    }
+
+    @TestConfiguration
+    static class TestConfig {
+        @Bean
+        @Primary
+        public AiSummaryService aiSummaryService() {
+            return mock(AiSummaryService.class);
+        }
+    }
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private AiSummaryService aiSummaryService;
+
+    @Test
+    public void reportShouldEmbedTheForecastAndPrefetchTheSummary() throws Exception {
+        mockMvc.perform(get("/report")
+                .param("lat", "40.7128")
+                .param("lon", "-74.0060")
+                .param("city", "New York"))
+                .andExpect(status().isOk())
+                .andExpect(view().name("report"))
+                .andExpect(model().attribute("reportJson", containsString("\"timezone\":\"America/New_York\"")))
+                .andExpect(content().string(containsString("\"2023-01-01T01:00\"")));
+
+        verify(aiSummaryService).prefetch(any(WeatherReport.class), eq("America/New_York"), eq("New York"));
+    }
+
+    @Test
+    public void reportShouldNotFetchTheForecastForInvalidCoordinates() throws Exception {
+        final var calls = STUB.calls();
+
+        mockMvc.perform(get("/report")
+                .param("lat", "91")
+                .param("lon", "0"))
+                .andExpect(status().isOk())
+                .andExpect(model().attribute("error", "Invalid coordinates."))
+                .andExpect(model().attributeDoesNotExist("reportJson"));
+        mockMvc.perform(get("/report")
+                .param("lat", "NaN")
+                .param("lon", "0"))
+                .andExpect(status().isOk())
+                .andExpect(model().attribute("error", "Invalid coordinates."))
+                .andExpect(model().attributeDoesNotExist("reportJson"));
+
+        assertThat(STUB.calls()).isEqualTo(calls);
+    }
+}
@@ -0,0 +1,67 @@
+package com.example.weatherapp.web;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest(properties = "web.assets.immutable=true")
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+public class StaticAssetsIntegrationTest {
+
+    private static final Pattern HASHED_ASSET = Pattern.compile("/assets/report-[0-9a-f]{32}\\.(css|js)");
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    public void pagesShouldLinkContentHashedAssetsThatAreCachedAsImmutable() throws Exception {
+        final var page = mockMvc.perform(get("/report")
+                .param("lat", "40.7128")
+                .param("lon", "-74.0060"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        final var links = HASHED_ASSET.matcher(page).results().map(m -> m.group()).toList();
+        assertThat(links).hasSize(2);
+        assertThat(page).doesNotContain("<style>");
+
+        for (final var link : links) {
+            mockMvc.perform(get(link))
+                    .andExpect(status().isOk())
+                    .andExpect(header().string(HttpHeaders.CACHE_CONTROL, containsString("max-age=31536000")))
+                    .andExpect(header().string(HttpHeaders.CACHE_CONTROL, containsString("immutable")));
+        }
+    }
+
+    @Test
+    public void unversionedAssetsShouldBeRevalidated() throws Exception {
+        final var etag = mockMvc.perform(get("/assets/index.js"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "no-cache"))
+                .andExpect(header().exists(HttpHeaders.ETAG))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(get("/assets/index.js").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified());
+    }
+
+    @Test
+    public void homePageShouldLinkItsAssets() throws Exception {
+        mockMvc.perform(get("/"))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString("/assets/index-")))
+                .andExpect(content().string(containsString(".js\"></script>")));
+    }
+}